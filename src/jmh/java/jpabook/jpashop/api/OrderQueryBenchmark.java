@@ -0,0 +1,249 @@
+package jpabook.jpashop.api;
+
+import static java.util.stream.Collectors.toList;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.api.OrderApiController.OrderDto;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.domain.item.Address;
+import jpabook.jpashop.domain.item.extend.Book;
+import jpabook.jpashop.domain.order.Order;
+import jpabook.jpashop.domain.order.OrderItem;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.OrderRequest;
+import jpabook.jpashop.service.OrderRequest.OrderLine;
+import jpabook.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * OrderApiController V1~V6 조회 전략 비교 (조회 + JSON 직렬화까지)
+ *
+ * 인메모리 H2에 주문 데이터를 만들어 두고, 각 전략을 읽기 전용 트랜잭션 안에서
+ * 실행한 뒤 ObjectMapper로 직렬화한다. (OSIV 대신 트랜잭션으로 지연 로딩)
+ *
+ * V5.1, V6.2는 같은 조회를 StatelessSession으로 실행한다.
+ * orders=10000, JDK 21, -bm avgt -prof gc (워밍업 2회, 측정 5회 x 5초, 오차는 99.9% 신뢰구간)
+ *
+ *   V5    112.5 ±  8.5 ms/op   gc.alloc.rate.norm 39,978,498 B/op
+ *   V5.1  113.4 ± 14.7 ms/op   gc.alloc.rate.norm 39,981,768 B/op
+ *   V6     21.6 ±  5.5 ms/op   gc.alloc.rate.norm 24,709,406 B/op
+ *   V6.2   20.9 ±  4.1 ms/op   gc.alloc.rate.norm 24,711,461 B/op
+ *
+ * DTO 프로젝션은 엔티티를 영속성 컨텍스트에 올리지 않으므로 시간, 할당 모두 차이가 오차 범위 안이다.
+ * (할당은 대부분 DTO와 JSON 직렬화에서 생긴다)
+ *
+ * 모든 전략이 같은 건수(InitDb 주문 포함 전체)를 반환한다.
+ * 엔드포인트의 V1, V2(최대 1000건), V3(최대 100건)는 건수 제한이 있으므로 같은 조회와 변환을
+ * 제한 없이(limit = 전체 주문 수) 실행하고, setUp에서 전략마다 반환 건수가 같은지 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class OrderQueryBenchmark {
+
+	@Param({"1000", "10000"})
+	int orders;
+
+	@Param({"3"})
+	int itemsPerOrder;
+
+	@Param({"100"})
+	int members;
+
+	private static final int CATALOG_SIZE = 100;
+	private static final long SEED = 42L;
+
+	private ConfigurableApplicationContext context;
+	private OrderApiController orderApiController;
+	private OrderRepository orderRepository;
+	private ObjectMapper objectMapper;
+	private TransactionTemplate readOnlyTx;
+	private int total;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(JpashopApplication.class)
+			.web(WebApplicationType.NONE)
+			// properties()는 기본값이라 application.yml에 덮이므로 커맨드라인 인자로 넘긴다
+			.run(
+				"--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+				"--decorator.datasource.enabled=false",
+				"--logging.level.root=warn");
+
+		orderApiController = context.getBean(OrderApiController.class);
+		orderRepository = context.getBean(OrderRepository.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+		readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnlyTx.setReadOnly(true);
+
+		seed();
+		total = readOnlyTx.execute(status -> context.getBean(EntityManager.class)
+			.createQuery("select count(o) from Order o", Long.class)
+			.getSingleResult()
+			.intValue());
+		checkSameResultSize();
+	}
+
+	private void checkSameResultSize() {
+		List<Supplier<List<?>>> strategies = List.of(this::ordersV1, this::ordersV2, this::ordersV3,
+			() -> orderApiController.ordersV3_page(0, total), orderApiController::ordersV4,
+			orderApiController::ordersV5, orderApiController::ordersV5_stateless,
+			orderApiController::ordersV6, orderApiController::ordersV6_stateless);
+		for (Supplier<List<?>> strategy : strategies) {
+			int size = readOnlyTx.execute(status -> strategy.get().size());
+			if (size != total) {
+				throw new IllegalStateException("전략마다 반환 건수가 달라 비교할 수 없습니다: " + size + " != " + total);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	private void seed() {
+		EntityManager em = context.getBean(EntityManager.class);
+		TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+		List<Long> memberIds = new ArrayList<>();
+		List<Long> itemIds = new ArrayList<>();
+		tx.executeWithoutResult(status -> {
+			for (int i = 0; i < members; i++) {
+				Member member = new Member();
+				member.setName("member" + i);
+				member.setAddress(new Address("city" + i, "street" + i, "zip" + i));
+				em.persist(member);
+				memberIds.add(member.getId());
+			}
+			for (int i = 0; i < CATALOG_SIZE; i++) {
+				Book book = new Book();
+				book.setName("book" + i);
+				book.setPrice(10000 + i);
+				book.setStockQuantity(Integer.MAX_VALUE / 2);
+				em.persist(book);
+				itemIds.add(book.getId());
+			}
+		});
+
+		Random random = new Random(SEED);
+		List<OrderRequest> requests = new ArrayList<>(orders);
+		for (int i = 0; i < orders; i++) {
+			List<OrderLine> lines = new ArrayList<>(itemsPerOrder);
+			for (int j = 0; j < itemsPerOrder; j++) {
+				lines.add(new OrderLine(itemIds.get(random.nextInt(itemIds.size())), 1 + random.nextInt(3)));
+			}
+			requests.add(new OrderRequest(memberIds.get(random.nextInt(memberIds.size())), lines));
+		}
+		context.getBean(OrderService.class).orders(requests);
+	}
+
+	private byte[] render(Supplier<Object> strategy) {
+		return readOnlyTx.execute(status -> {
+			try {
+				return objectMapper.writeValueAsBytes(strategy.get());
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	/*
+	 * V1~V3: OrderApiController와 같은 조회, 변환 (건수 제한만 total로 바꿈)
+	 */
+
+	private List<Order> ordersV1() {
+		List<Order> all = orderRepository.findAllByString(new OrderSearch(), total);
+		for (Order order : all) {
+			order.getMember().getName();
+			order.getDelivery().getAddress();
+
+			List<OrderItem> orderItems = order.getOrderItems();
+			orderItems.stream().forEach(o -> o.getItem().getName());
+		}
+		return all;
+	}
+
+	private List<OrderDto> ordersV2() {
+		return orderRepository.findAllByString(new OrderSearch(), total).stream()
+			.map(OrderDto::new)
+			.collect(toList());
+	}
+
+	private List<OrderDto> ordersV3() {
+		return orderRepository.findAllWithItemReadOnly(total).stream()
+			.map(OrderDto::new)
+			.collect(toList());
+	}
+
+	@Benchmark
+	public byte[] v1_entity() {
+		return render(this::ordersV1);
+	}
+
+	@Benchmark
+	public byte[] v2_entityToDto() {
+		return render(this::ordersV2);
+	}
+
+	@Benchmark
+	public byte[] v3_fetchJoin() {
+		return render(this::ordersV3);
+	}
+
+	@Benchmark
+	public byte[] v3_1_batchFetch() {
+		return render(() -> orderApiController.ordersV3_page(0, total));
+	}
+
+	@Benchmark
+	public byte[] v4_dtoNPlusOne() {
+		return render(orderApiController::ordersV4);
+	}
+
+	@Benchmark
+	public byte[] v5_dtoIn() {
+		return render(orderApiController::ordersV5);
+	}
+
+	@Benchmark
+	public byte[] v5_1_dtoInStateless() {
+		return render(orderApiController::ordersV5_stateless);
+	}
+
+	@Benchmark
+	public byte[] v6_flatJoin() {
+		return render(orderApiController::ordersV6);
+	}
+
+	@Benchmark
+	public byte[] v6_2_flatJoinStateless() {
+		return render(orderApiController::ordersV6_stateless);
+	}
+}
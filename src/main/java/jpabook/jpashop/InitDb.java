@@ -2,27 +2,68 @@ package jpabook.jpashop;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.delivery.Delivery;
 import jpabook.jpashop.domain.item.Address;
 import jpabook.jpashop.domain.item.extend.Book;
 import jpabook.jpashop.domain.order.Order;
 import jpabook.jpashop.domain.order.OrderItem;
+import jpabook.jpashop.repository.order.simplequery.OrderSummaryRepository;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class InitDb {
 
 	private final InitService initService;
+	private final StartupProperties startupProperties;
+	private final TaskExecutor applicationTaskExecutor;
+
+	@Getter
+	private volatile boolean completed;
+	@Getter
+	private volatile RuntimeException failure;
 
 	// Spring Bean 초기화가 끝나면 호출해줌
 	@PostConstruct
 	public void init() {
+		if (!startupProperties.isAsyncInit()) {
+			initData();
+		}
+	}
+
+	// 비동기 모드: 애플리케이션이 뜬 다음 백그라운드에서 적재 (InitDbHealthIndicator로 readiness 제어)
+	@EventListener(ApplicationReadyEvent.class)
+	public void initAsync() {
+		if (startupProperties.isAsyncInit()) {
+			applicationTaskExecutor.execute(() -> {
+				try {
+					initData();
+				} catch (RuntimeException e) {
+					failure = e;
+					log.error("init db failed", e);
+				}
+			});
+		}
+	}
+
+	private void initData() {
+		long start = System.currentTimeMillis();
 		initService.dbInit1();
 		initService.dbInit2();
+		initService.rebuildOrderSummary();
+		completed = true;
+		log.info("init db finished in {} ms (jvm uptime {} ms)", System.currentTimeMillis() - start,
+			ManagementFactory.getRuntimeMXBean().getUptime());
 	}
 
 
@@ -32,6 +73,7 @@ public class InitDb {
 	static class InitService {
 
 		private final EntityManager em;
+		private final OrderSummaryRepository orderSummaryRepository;
 
 		public void dbInit1() {
 			Member member = createMember("userA", "서울", "1", "1111");
@@ -68,6 +110,12 @@ public class InitDb {
 			Order order = Order.createOrder(member, delivery, orderItem1, orderItem2);
 			em.persist(order);
 		}
+
+		// em.persist로 직접 넣은 주문은 이벤트가 없어서 요약 테이블을 다시 만든다
+		public void rebuildOrderSummary() {
+			em.flush();
+			orderSummaryRepository.rebuild();
+		}
 	}
 
 	private static Delivery createDelivery(Member member) {
@@ -0,0 +1,27 @@
+package jpabook.jpashop;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 초기 데이터 적재가 끝나야 트래픽을 받도록 readiness 그룹에 포함 (management.endpoint.health.group.readiness)
+ */
+@Component
+@RequiredArgsConstructor
+public class InitDbHealthIndicator implements HealthIndicator {
+
+	private final InitDb initDb;
+
+	@Override
+	public Health health() {
+		if (initDb.getFailure() != null) {
+			return Health.down(initDb.getFailure()).build();
+		}
+		if (!initDb.isCompleted()) {
+			return Health.outOfService().withDetail("initDb", "in progress").build();
+		}
+		return Health.up().build();
+	}
+}
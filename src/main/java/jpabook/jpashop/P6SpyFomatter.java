@@ -4,7 +4,6 @@ import com.p6spy.engine.logging.Category;
 import com.p6spy.engine.spy.P6SpyOptions;
 import com.p6spy.engine.spy.appender.MessageFormattingStrategy;
 import jakarta.annotation.PostConstruct;
-import java.util.Locale;
 import org.hibernate.engine.jdbc.internal.FormatStyle;
 import org.springframework.context.annotation.Configuration;
 
@@ -18,20 +17,22 @@ public class P6SpyFomatter implements MessageFormattingStrategy {
 
 	@Override
 	public String formatMessage(int connectionId, String now, long elapsed, String category, String prepared, String sql, String url) {
-		sql = formatSql(category, sql);
-		return String.format("[%s] | %d ms | %s", category, elapsed, formatSql(category, sql));
+		return "[" + category + "] | " + elapsed + " ms | " + formatSql(category, sql);
 	}
 
-	private String formatSql(String category, String sql) {
-		if (sql != null && !sql.trim().isEmpty() && Category.STATEMENT.getName().equals(category)) {
-			String trimmedSQL = sql.trim().toLowerCase(Locale.ROOT);
-			if (trimmedSQL.startsWith("create") || trimmedSQL.startsWith("alter") || trimmedSQL.startsWith("comment")) {
-				sql = FormatStyle.DDL.getFormatter().format(sql);
-			} else {
-				sql = FormatStyle.BASIC.getFormatter().format(sql);
+	public static String formatSql(String category, String sql) {
+		if (sql != null && !sql.isBlank() && Category.STATEMENT.getName().equals(category)) {
+			String trimmedSQL = sql.trim();
+			if (startsWithIgnoreCase(trimmedSQL, "create") || startsWithIgnoreCase(trimmedSQL, "alter") || startsWithIgnoreCase(trimmedSQL, "comment")) {
+				return FormatStyle.DDL.getFormatter().format(sql);
 			}
-			return sql;
+			return FormatStyle.BASIC.getFormatter().format(sql);
 		}
 		return sql;
 	}
-}
\ No newline at end of file
+
+	// 전체 SQL을 소문자로 복사하지 않고 앞부분만 비교
+	private static boolean startsWithIgnoreCase(String sql, String prefix) {
+		return sql.regionMatches(true, 0, prefix, 0, prefix.length());
+	}
+}
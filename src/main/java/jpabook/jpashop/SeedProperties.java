@@ -0,0 +1,26 @@
+package jpabook.jpashop;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 대용량 테스트 데이터 설정 (seed 프로필에서만 사용)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.seed")
+public class SeedProperties {
+
+	private int members = 100_000;
+	private int items = 10_000;
+	private int orders = 1_000_000;
+	private int itemsPerOrder = 3;
+
+	// JDBC 배치 크기 = 작업 하나가 넣는 행 수
+	private int batchSize = 1_000;
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	// 같은 seed면 항상 같은 데이터
+	private long seed = 42L;
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+/**
+ * fast-start 프로필(spring.main.lazy-initialization=true)에서도 컨트롤러는 미리 만들어서
+ * 첫 요청이 빈 초기화 비용을 떠안지 않도록 한다.
+ */
+@Configuration
+public class StartupConfig {
+
+	@Bean
+	static LazyInitializationExcludeFilter eagerWebBeans() {
+		return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+	}
+}
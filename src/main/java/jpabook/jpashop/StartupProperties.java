@@ -0,0 +1,14 @@
+package jpabook.jpashop;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.startup")
+public class StartupProperties {
+
+	// true면 InitDb를 ApplicationReadyEvent 이후 백그라운드에서 실행 (readiness는 완료 후 UP)
+	private boolean asyncInit = false;
+}
@@ -0,0 +1,156 @@
+package jpabook.jpashop;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jpabook.jpashop.repository.order.simplequery.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StopWatch;
+
+/**
+ * 운영 규모 데이터 생성기 (--spring.profiles.active=seed)
+ * 프로필을 켜지 않으면 빈이 만들어지지 않아서 기본 기동 시간에는 영향이 없다.
+ *
+ * 엔티티를 거치지 않고 JDBC 배치 INSERT로 넣고, batchSize 단위 작업을 여러 스레드에 나눠서 실행한다.
+ * 작업마다 (seed, 작업 번호)로 난수를 만들기 때문에 스레드 실행 순서와 상관없이 결과가 같다.
+ */
+@Slf4j
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class SyntheticDataSeeder {
+
+	private static final int SEQUENCE_GAP = 100; // pooled optimizer(allocationSize 50)가 받아갈 구간보다 크게
+
+	private final SeedProperties properties;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final OrderSummaryRepository orderSummaryRepository;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void seed() throws InterruptedException, ExecutionException {
+		long memberBase = nextId("member", "member_id");
+		long itemBase = nextId("item", "item_id");
+		long orderBase = nextId("orders", "order_id");
+		long deliveryBase = nextId("delivery", "delivery_id");
+		long orderItemBase = nextId("order_item", "order_item_id");
+
+		StopWatch stopWatch = new StopWatch("seed");
+		ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+		try {
+			stopWatch.start("member");
+			run(executor, properties.getMembers(), (from, to, random) -> insertMembers(memberBase, from, to, random));
+			stopWatch.stop();
+
+			stopWatch.start("item");
+			run(executor, properties.getItems(), (from, to, random) -> insertItems(itemBase, from, to, random));
+			stopWatch.stop();
+
+			stopWatch.start("orders");
+			run(executor, properties.getOrders(), (from, to, random) ->
+				insertOrders(memberBase, itemBase, orderBase, deliveryBase, orderItemBase, from, to, random));
+			stopWatch.stop();
+		} finally {
+			executor.shutdown();
+		}
+
+		stopWatch.start("sequence, order_summary");
+		restartSequence("member_seq", memberBase + properties.getMembers());
+		restartSequence("item_seq", itemBase + properties.getItems());
+		restartSequence("orders_seq", orderBase + properties.getOrders());
+		restartSequence("delivery_seq", deliveryBase + properties.getOrders());
+		restartSequence("order_item_seq", orderItemBase + (long) properties.getOrders() * properties.getItemsPerOrder());
+		transactionTemplate.executeWithoutResult(status -> orderSummaryRepository.rebuild());
+		stopWatch.stop();
+
+		log.info("seed finished: members={} items={} orders={} orderItems={} threads={}\n{}",
+			properties.getMembers(), properties.getItems(), properties.getOrders(),
+			(long) properties.getOrders() * properties.getItemsPerOrder(), properties.getThreads(), stopWatch.prettyPrint());
+	}
+
+	private void run(ExecutorService executor, int total, ChunkWriter writer) throws InterruptedException, ExecutionException {
+		int batchSize = properties.getBatchSize();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int from = 0; from < total; from += batchSize) {
+			int chunkFrom = from;
+			int chunkTo = Math.min(from + batchSize, total);
+			SplittableRandom random = new SplittableRandom(properties.getSeed() * 31 + chunkFrom);
+			tasks.add(() -> {
+				writer.write(chunkFrom, chunkTo, random);
+				return null;
+			});
+		}
+		for (Future<Void> future : executor.invokeAll(tasks)) {
+			future.get();
+		}
+	}
+
+	private void insertMembers(long base, int from, int to, SplittableRandom random) {
+		List<Object[]> rows = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			rows.add(new Object[]{base + i, "member" + (base + i), "city" + random.nextInt(100), "street" + random.nextInt(1000), String.valueOf(10000 + random.nextInt(90000))});
+		}
+		jdbcTemplate.batchUpdate("insert into member (member_id, name, city, street, zipcode, version) values (?, ?, ?, ?, ?, 0)", rows);
+	}
+
+	private void insertItems(long base, int from, int to, SplittableRandom random) {
+		List<Object[]> rows = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			rows.add(new Object[]{base + i, "book" + i, price(i), 1_000_000 + random.nextInt(1_000_000), "author" + random.nextInt(1000), "isbn" + i});
+		}
+		jdbcTemplate.batchUpdate("insert into item (dtype, item_id, name, price, stock_quantity, author, isbn, version) values ('B', ?, ?, ?, ?, ?, ?, 0)", rows);
+	}
+
+	private void insertOrders(long memberBase, long itemBase, long orderBase, long deliveryBase, long orderItemBase,
+		int from, int to, SplittableRandom random) {
+
+		int itemsPerOrder = properties.getItemsPerOrder();
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+
+		List<Object[]> deliveries = new ArrayList<>(to - from);
+		List<Object[]> orders = new ArrayList<>(to - from);
+		List<Object[]> orderItems = new ArrayList<>((to - from) * itemsPerOrder);
+		for (int i = from; i < to; i++) {
+			deliveries.add(new Object[]{deliveryBase + i, "city" + random.nextInt(100), "street" + random.nextInt(1000), String.valueOf(10000 + random.nextInt(90000))});
+			orders.add(new Object[]{orderBase + i, memberBase + random.nextInt(properties.getMembers()), deliveryBase + i, now.minusSeconds(random.nextInt(365 * 24 * 3600))});
+			for (int j = 0; j < itemsPerOrder; j++) {
+				int item = random.nextInt(properties.getItems());
+				orderItems.add(new Object[]{orderItemBase + (long) i * itemsPerOrder + j, orderBase + i, itemBase + item, price(item), 1 + random.nextInt(5)});
+			}
+		}
+		jdbcTemplate.batchUpdate("insert into delivery (delivery_id, city, street, zipcode, status) values (?, ?, ?, ?, 'READY')", deliveries);
+		jdbcTemplate.batchUpdate("insert into orders (order_id, member_id, delivery_id, order_date, status, version) values (?, ?, ?, ?, 'ORDER', 0)", orders);
+		jdbcTemplate.batchUpdate("insert into order_item (order_item_id, order_id, item_id, order_price, count) values (?, ?, ?, ?, ?)", orderItems);
+	}
+
+	private static int price(int item) {
+		return 1000 + (item % 100) * 100;
+	}
+
+	private long nextId(String table, String idColumn) {
+		Long max = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+		return max == null ? 1 : max + 1;
+	}
+
+	private void restartSequence(String sequence, long maxId) {
+		jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + SEQUENCE_GAP));
+	}
+
+	@FunctionalInterface
+	private interface ChunkWriter {
+		void write(int from, int to, SplittableRandom random);
+	}
+}
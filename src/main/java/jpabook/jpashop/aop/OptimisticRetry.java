@@ -0,0 +1,15 @@
+package jpabook.jpashop.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌(@Version) 시 트랜잭션을 처음부터 다시 실행한다.
+ * @Transactional 메서드에 같이 붙이고, 재시도 횟수와 대기 시간은 jpashop.optimistic-retry 설정을 따른다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+}
@@ -0,0 +1,62 @@
+package jpabook.jpashop.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @OptimisticRetry 메서드가 낙관적 락 충돌로 실패하면 대기 후 다시 실행한다.
+ * 트랜잭션 인터셉터보다 바깥에서 실행되도록 순서를 앞에 두어서, 재시도마다 새 트랜잭션(새 영속성 컨텍스트)에서 다시 읽는다.
+ * 이미 바깥 트랜잭션 안에서 호출되면 그 트랜잭션은 롤백 전용이 되므로 재시도하지 않는다.
+ *
+ * - jpashop.optimistic.conflicts: 충돌 횟수
+ * - jpashop.optimistic.retries: 재시도 횟수
+ * - jpashop.optimistic.exhausted: 재시도를 모두 쓰고 실패한 횟수
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class OptimisticRetryAspect {
+
+	private final OptimisticRetryProperties properties;
+	private final MeterRegistry meterRegistry;
+
+	@Around("@annotation(jpabook.jpashop.aop.OptimisticRetry)")
+	public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return joinPoint.proceed();
+		}
+
+		String method = joinPoint.getSignature().toShortString();
+		long backoff = properties.getInitialBackoffMs();
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return joinPoint.proceed();
+			} catch (OptimisticLockingFailureException | OptimisticLockException e) {
+				meterRegistry.counter("jpashop.optimistic.conflicts", "method", method).increment();
+				if (attempt >= properties.getMaxAttempts()) {
+					meterRegistry.counter("jpashop.optimistic.exhausted", "method", method).increment();
+					log.warn("optimistic lock retry exhausted: method={} attempts={}", method, attempt);
+					throw e;
+				}
+			}
+
+			meterRegistry.counter("jpashop.optimistic.retries", "method", method).increment();
+			// 동시에 실패한 요청끼리 다시 부딪히지 않도록 대기 시간을 흩뿌린다
+			Thread.sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+			backoff = Math.min((long) (backoff * properties.getMultiplier()), properties.getMaxBackoffMs());
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.aop;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 낙관적 락 재시도 설정 (OptimisticRetryAspect)
+ * 대기 시간은 initialBackoffMs부터 multiplier배씩 늘어나고 maxBackoffMs를 넘지 않는다. (0 ~ 대기 시간 사이 랜덤)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.optimistic-retry")
+public class OptimisticRetryProperties {
+
+	// 첫 시도를 포함한 최대 실행 횟수
+	private int maxAttempts = 5;
+
+	private long initialBackoffMs = 10;
+
+	private double multiplier = 2.0;
+
+	private long maxBackoffMs = 200;
+}
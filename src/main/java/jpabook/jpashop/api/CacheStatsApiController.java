@@ -0,0 +1,74 @@
+package jpabook.jpashop.api;
+
+import static java.util.stream.Collectors.toList;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 2차 캐시 영역별 hit / miss / put / eviction 건수
+ * 영역 크기와 TTL(application.conf)을 조정할 때 참고
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsApiController {
+
+	private final EntityManagerFactory emf;
+
+	@GetMapping("/api/cache/stats")
+	public List<CacheRegionStatsDto> cacheStats() {
+		Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+		return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+			.map(region -> new CacheRegionStatsDto(region, statistics.getCacheRegionStatistics(region), evictions(region)))
+			.collect(toList());
+	}
+
+	/**
+	 * eviction 건수는 Hibernate 통계에 없어서 JCache 통계 MBean에서 읽는다. (monitoring.statistics = true)
+	 */
+	private long evictions(String region) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + region.replaceAll("[,:=\n]", "."));
+			long evictions = 0;
+			for (ObjectName name : server.queryNames(pattern, null)) {
+				evictions += (Long) server.getAttribute(name, "CacheEvictions");
+			}
+			return evictions;
+		} catch (JMException e) {
+			return -1;
+		}
+	}
+
+	@Data
+	static class CacheRegionStatsDto {
+		private String region;
+		private long hitCount;
+		private long missCount;
+		private long putCount;
+		private long elementCount;
+		private long evictionCount;
+
+		public CacheRegionStatsDto(String region, CacheRegionStatistics stats, long evictionCount) {
+			this.region = region;
+			this.hitCount = stats == null ? 0 : stats.getHitCount();
+			this.missCount = stats == null ? 0 : stats.getMissCount();
+			this.putCount = stats == null ? 0 : stats.getPutCount();
+			this.elementCount = stats == null ? 0 : stats.getElementCountInMemory();
+			this.evictionCount = evictionCount;
+		}
+	}
+}
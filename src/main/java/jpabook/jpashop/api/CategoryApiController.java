@@ -0,0 +1,61 @@
+package jpabook.jpashop.api;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import jpabook.jpashop.domain.item.extend.Item;
+import jpabook.jpashop.repository.category.CategoryNode;
+import jpabook.jpashop.service.CategoryService;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class CategoryApiController {
+
+	private final CategoryService categoryService;
+
+	/**
+	 * 카테고리 아래 모든 상품 (하위 카테고리 포함)
+	 */
+	@GetMapping("/api/v1/categories/{id}/items")
+	public List<CategoryItemDto> categoryItemsV1(@PathVariable("id") Long id) {
+		return categoryService.findItemsInSubtree(id).stream()
+			.map(CategoryItemDto::new)
+			.collect(toList());
+	}
+
+	@GetMapping("/api/v1/categories/{id}/breadcrumb")
+	public List<CategoryDto> breadcrumbV1(@PathVariable("id") Long id) {
+		return categoryService.findAncestors(id).stream()
+			.map(CategoryDto::new)
+			.collect(toList());
+	}
+
+	@Data
+	static class CategoryDto {
+		private Long id;
+		private String name;
+
+		public CategoryDto(CategoryNode node) {
+			id = node.getId();
+			name = node.getName();
+		}
+	}
+
+	@Data
+	static class CategoryItemDto {
+		private Long itemId;
+		private String name;
+		private int price;
+
+		public CategoryItemDto(Item item) {
+			itemId = item.getId();
+			name = item.getName();
+			price = item.getPrice();
+		}
+	}
+}
@@ -2,25 +2,43 @@ package jpabook.jpashop.api;
 
 import static java.util.stream.Collectors.toList;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.member.query.MemberQueryDto;
+import jpabook.jpashop.service.MemberImportReader;
+import jpabook.jpashop.service.MemberImportResult;
+import jpabook.jpashop.service.MemberImportRow;
+import jpabook.jpashop.service.MemberImportService;
 import jpabook.jpashop.service.MemberService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberApiController {
 
+	private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
 	private final MemberService memberService;
+	private final MemberImportService memberImportService;
+	private final ObjectMapper objectMapper;
 
 	@GetMapping("/api/v1/members")
 	public List<Member> membersV1() {
@@ -37,6 +55,45 @@ public class MemberApiController {
 		return new Result(collect);
 	}
 
+	/**
+	 * V3. 회원 목록 (키셋 페이징)
+	 * V2는 회원 전체를 엔티티로 조회함 -> member_id 기준으로 limit명씩 id, name만 조회
+	 * 다음 페이지는 응답의 nextLastId를 lastId로 넘긴다. (마지막 페이지면 null)
+	 */
+	@GetMapping("/api/v3/members")
+	public PageResult<List<MemberQueryDto>> membersV3(
+		@RequestParam(value = "lastId", required = false) Long lastId,
+		@RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+		int pageSize = PageLimit.limit(limit);
+		List<MemberQueryDto> members = memberService.findMemberPage(lastId, pageSize);
+
+		Long nextLastId = members.size() < pageSize ? null : members.get(members.size() - 1).getMemberId();
+		return new PageResult<>(members, nextLastId);
+	}
+
+	/**
+	 * V3. 회원 전체 스트리밍 내보내기(NDJSON)
+	 */
+	@GetMapping(value = "/api/v3/members/export", produces = "application/x-ndjson")
+	public void membersV3_export(HttpServletResponse response) throws IOException {
+		response.setContentType("application/x-ndjson");
+		response.setCharacterEncoding("UTF-8");
+
+		try (SequenceWriter writer = objectMapper.writer()
+			.withRootValueSeparator("\n")
+			.writeValues(response.getOutputStream())) {
+
+			memberService.exportMembers(member -> {
+				try {
+					writer.write(member);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
 	@Data
 	@AllArgsConstructor
 	static class MemberDto {
@@ -49,6 +106,13 @@ public class MemberApiController {
 		private T data;
 	}
 
+	@Data
+	@AllArgsConstructor
+	static class PageResult<T> {
+		private T data;
+		private Long nextLastId;
+	}
+
 	@PostMapping("/api/v1/members")
 	public CreateMemberResponse saveMemberV1(@RequestBody @Valid Member member) {
 		Long id = memberService.join(member);
@@ -63,6 +127,18 @@ public class MemberApiController {
 		return new CreateMemberResponse(id);
 	}
 
+	/**
+	 * 회원 일괄 등록 (text/csv, application/json 배열, application/x-ndjson)
+	 * 본문을 스트리밍으로 읽으면서 청크 단위로 저장하고, 실패한 줄은 마지막에 모아서 알려준다.
+	 */
+	@PostMapping(value = "/api/v1/members/import", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+	public MemberImportResult importMembersV1(HttpServletRequest request) throws IOException {
+		Iterator<MemberImportRow> rows = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV)
+			? MemberImportReader.csv(request.getInputStream())
+			: MemberImportReader.json(objectMapper, request.getInputStream());
+		return memberImportService.importMembers(rows);
+	}
+
 	@PutMapping("/api/v2/members/{id}")
 	public UpdateMemberResponse updateMemberV2(
 		@PathVariable("id") Long id,
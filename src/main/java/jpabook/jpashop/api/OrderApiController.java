@@ -1,9 +1,14 @@
 package jpabook.jpashop.api;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import jpabook.jpashop.domain.OrderSearch;
@@ -11,15 +16,22 @@ import jpabook.jpashop.domain.item.Address;
 import jpabook.jpashop.domain.order.Order;
 import jpabook.jpashop.domain.order.OrderItem;
 import jpabook.jpashop.domain.order.OrderStatus;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.order.query.OrderFlatAggregator;
 import jpabook.jpashop.repository.order.query.OrderFlatDto;
-import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
-import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderExportService;
+import jpabook.jpashop.service.OrderQueryService;
+import jpabook.jpashop.service.OrderRequest;
+import jpabook.jpashop.service.OrderService;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -38,7 +50,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class OrderApiController {
 
 	private final OrderRepository orderRepository;
-	private final OrderQueryRepository orderQueryRepository;
+	private final OrderQueryService orderQueryService;
+	private final OrderExportService orderExportService;
+	private final OrderService orderService;
+	private final ObjectMapper objectMapper;
+	private final OrderJsonWriter orderJsonWriter;
 
 	/**
 	 * V1.엔티티 그대로 변환
@@ -73,11 +89,7 @@ public class OrderApiController {
 	 */
 	@GetMapping("/api/v3/orders")
 	public List<OrderDto> ordersV3() {
-		List<Order> orders = orderRepository.findAllWithItem();
-
-		for (Order order : orders) {
-			System.out.println("order ref = " + order + " id = " + order.getId());
-		}
+		List<Order> orders = orderRepository.findAllWithItemReadOnly();
 
 		List<OrderDto> result = orders.stream()
 			.map(OrderDto::new)
@@ -94,7 +106,7 @@ public class OrderApiController {
 		@RequestParam(value = "offset", defaultValue = "0") int offset,
 		@RequestParam(value = "limit", defaultValue = "100") int limit) {
 
-		List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit);
+		List<Order> orders = orderRepository.findAllWithMemberDeliveryReadOnly(offset, limit);
 
 		List<OrderDto> result = orders.stream()
 			.map(OrderDto::new)
@@ -103,6 +115,52 @@ public class OrderApiController {
 		return result;
 	}
 
+	/**
+	 * V3.2.키셋(커서) 페이징
+	 * offset은 앞의 데이터를 모두 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다.
+	 * 마지막으로 읽은 (orderDate, id)를 커서로 넘겨서 다음 페이지를 바로 찾아간다.
+	 * 컬렉션은 V3.1과 동일하게 default_batch_fetch_size로 조회
+	 */
+	@GetMapping("/api/v3.2/orders")
+	public CursorResult<List<OrderDto>> ordersV3_cursor(
+		@RequestParam(value = "cursor", required = false) String cursor,
+		@RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+		OrderCursor orderCursor = cursor == null ? null : OrderCursor.decode(cursor);
+		int pageSize = PageLimit.limit(limit);
+		List<Order> orders = orderRepository.findAllWithMemberDeliveryReadOnly(orderCursor, pageSize);
+
+		List<OrderDto> result = orders.stream()
+			.map(OrderDto::new)
+			.collect(toList());
+
+		String nextCursor = orders.size() < pageSize ? null : OrderCursor.of(orders.get(orders.size() - 1)).encode();
+		return new CursorResult<>(result, nextCursor);
+	}
+
+	/**
+	 * V2.1.엔티티 조회 후 DTO 없이 바로 직렬화
+	 * 응답은 V2와 같고, 주문마다 DTO와 리스트를 만들지 않는다.
+	 */
+	@GetMapping("/api/v2.1/orders")
+	public void ordersV2_direct(HttpServletResponse response) throws IOException {
+		writeOrders(orderRepository.findAllByString(new OrderSearch()), response);
+	}
+
+	/**
+	 * V3.3.페치 조인 + DTO 없이 바로 직렬화 (응답은 V3와 같음)
+	 */
+	@GetMapping("/api/v3.3/orders")
+	public void ordersV3_direct(HttpServletResponse response) throws IOException {
+		writeOrders(orderRepository.findAllWithItemReadOnly(), response);
+	}
+
+	private void writeOrders(List<Order> orders, HttpServletResponse response) throws IOException {
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		orderJsonWriter.write(orders, response.getOutputStream());
+	}
+
 	// ==DTO 직접 조회 시작== //
 
 	/**
@@ -110,7 +168,7 @@ public class OrderApiController {
 	 */
 	@GetMapping("/api/v4/orders")
 	public List<OrderQueryDto> ordersV4() {
-		return orderQueryRepository.findOrderQueryDtos();
+		return orderQueryService.findOrderQueryDtos();
 	}
 
 	/**
@@ -118,7 +176,15 @@ public class OrderApiController {
 	 */
 	@GetMapping("/api/v5/orders")
 	public List<OrderQueryDto> ordersV5() {
-		return orderQueryRepository.findAllByDtoOptimization();
+		return orderQueryService.findAllByDtoOptimization();
+	}
+
+	/**
+	 * V5.1. V5를 StatelessSession으로 조회 (영속성 컨텍스트 없음)
+	 */
+	@GetMapping("/api/v5.1/orders")
+	public List<OrderQueryDto> ordersV5_stateless() {
+		return orderQueryService.findAllByDtoOptimizationStateless();
 	}
 
 	/**
@@ -131,13 +197,80 @@ public class OrderApiController {
 	 */
 	@GetMapping("/api/v6/orders")
 	public List<OrderQueryDto> ordersV6() {
-		List<OrderFlatDto> flats = orderQueryRepository.findAllByDtoFlat();
+		List<OrderFlatDto> flats = orderQueryService.findAllByDtoFlat();
 
-		return flats.stream()
-			.collect(groupingBy(o -> new OrderQueryDto(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
-				mapping(o -> new OrderItemQueryDto(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount()), toList())))
-			.entrySet().stream().map(e -> new OrderQueryDto(e.getKey().getOrderId(), e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(), e.getKey().getAddress(),e.getValue()))
-			.collect(toList());
+		// order_id 순으로 정렬된 결과를 한 번만 훑으면서 주문 단위로 묶는다 (SQL 순서 유지)
+		return OrderFlatAggregator.aggregate(flats);
+	}
+
+	/**
+	 * V6.1. 전체 주문 스트리밍 내보내기(NDJSON)
+	 * 전체 결과를 메모리에 올리지 않고 주문 하나가 완성될 때마다 바로 응답에 쓴다.
+	 */
+	@GetMapping(value = "/api/v6/orders/export", produces = "application/x-ndjson")
+	public void ordersV6_export(HttpServletResponse response) throws IOException {
+		response.setContentType("application/x-ndjson");
+		response.setCharacterEncoding("UTF-8");
+
+		try (SequenceWriter writer = objectMapper.writer()
+			.withRootValueSeparator("\n")
+			.writeValues(response.getOutputStream())) {
+
+			orderExportService.exportOrders(order -> {
+				try {
+					writer.write(order);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * V6.2. V6를 StatelessSession으로 조회 (영속성 컨텍스트 없음)
+	 */
+	@GetMapping("/api/v6.2/orders")
+	public List<OrderQueryDto> ordersV6_stateless() {
+		return OrderFlatAggregator.aggregate(orderQueryService.findAllByDtoFlatStateless());
+	}
+
+	/**
+	 * 대량 주문
+	 */
+	@PostMapping("/api/v1/orders/bulk")
+	public CreateOrdersResponse saveOrdersV1(@RequestBody @NotEmpty List<@Valid OrderRequest> requests) {
+		List<Long> orderIds = orderService.orders(requests);
+		return new CreateOrdersResponse(orderIds.size(), orderIds);
+	}
+
+	/**
+	 * 주문 일괄 취소 (주문 id 목록)
+	 */
+	@PostMapping("/api/v1/orders/bulk-cancel")
+	public CancelOrdersResponse cancelOrdersV1(@RequestBody List<Long> orderIds) {
+		int canceled = orderService.cancelOrders(orderIds);
+		return new CancelOrdersResponse(orderIds.size(), canceled);
+	}
+
+	@Data
+	@AllArgsConstructor
+	static class CancelOrdersResponse {
+		private int requested;
+		private int canceled;
+	}
+
+	@Data
+	@AllArgsConstructor
+	static class CreateOrdersResponse {
+		private int count;
+		private List<Long> orderIds;
+	}
+
+	@Data
+	@AllArgsConstructor
+	static class CursorResult<T> {
+		private T data;
+		private String nextCursor;
 	}
 
 	@Data
@@ -0,0 +1,69 @@
+package jpabook.jpashop.api;
+
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import jpabook.jpashop.domain.item.Address;
+import jpabook.jpashop.domain.order.Order;
+import jpabook.jpashop.domain.order.OrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 주문 엔티티를 OrderDto/OrderItemDto로 변환하지 않고 JsonGenerator에 바로 쓴다.
+ * 응답 모양은 OrderApiController.OrderDto 직렬화 결과와 같다.
+ * (주문마다 생기던 스트림 파이프라인, DTO, 리스트 할당이 없어짐)
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderJsonWriter {
+
+	private final ObjectMapper objectMapper;
+
+	public void write(List<Order> orders, OutputStream out) throws IOException {
+		try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+			gen.writeStartArray();
+			for (Order order : orders) {
+				writeOrder(gen, order);
+			}
+			gen.writeEndArray();
+		}
+	}
+
+	private void writeOrder(JsonGenerator gen, Order order) throws IOException {
+		gen.writeStartObject();
+		gen.writeNumberField("orderId", order.getId());
+		gen.writeStringField("name", order.getMember().getName());
+		// JavaTimeModule 기본 포맷(WRITE_DATES_AS_TIMESTAMPS 비활성)과 동일
+		gen.writeStringField("orderDate", order.getOrderDate() == null ? null : ISO_LOCAL_DATE_TIME.format(order.getOrderDate()));
+		gen.writeStringField("orderStatus", order.getStatus() == null ? null : order.getStatus().name());
+		writeAddress(gen, order.getDelivery().getAddress());
+
+		gen.writeArrayFieldStart("orderItems");
+		for (OrderItem orderItem : order.getOrderItems()) {
+			gen.writeStartObject();
+			gen.writeStringField("itemName", orderItem.getItem().getName());
+			gen.writeNumberField("orderPrice", orderItem.getOrderPrice());
+			gen.writeNumberField("count", orderItem.getCount());
+			gen.writeEndObject();
+		}
+		gen.writeEndArray();
+		gen.writeEndObject();
+	}
+
+	private void writeAddress(JsonGenerator gen, Address address) throws IOException {
+		if (address == null) {
+			gen.writeNullField("address");
+			return;
+		}
+		gen.writeObjectFieldStart("address");
+		gen.writeStringField("city", address.getCity());
+		gen.writeStringField("street", address.getStreet());
+		gen.writeStringField("zipcode", address.getZipcode());
+		gen.writeEndObject();
+	}
+}
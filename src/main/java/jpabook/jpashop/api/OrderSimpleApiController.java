@@ -11,9 +11,13 @@ import jpabook.jpashop.domain.order.OrderStatus;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSummaryRepository;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -28,6 +32,7 @@ public class OrderSimpleApiController {
 
 	private final OrderRepository orderRepository;
 	private final OrderSimpleQueryRepository orderSimpleQueryRepository;
+	private final OrderSummaryRepository orderSummaryRepository;
 
 	@GetMapping("/api/v1/simple-orders")
 	public List<Order> ordersV1() {
@@ -54,12 +59,37 @@ public class OrderSimpleApiController {
 		return result;
 	}
 
+	/**
+	 * V2.1.검색 조건 + 페이징
+	 * V2의 N + 1 -> Criteria 검색에서 member, delivery를 페치 조인
+	 * withCount=true면 전체 건수를 X-Total-Count 헤더로 내려준다.
+	 */
+	@GetMapping("/api/v2.1/simple-orders")
+	public ResponseEntity<List<SimpleOrderDto>> ordersV2_search(
+		@ModelAttribute OrderSearch orderSearch,
+		@RequestParam(value = "offset", defaultValue = "0") int offset,
+		@RequestParam(value = "limit", defaultValue = "100") int limit,
+		@RequestParam(value = "withCount", defaultValue = "false") boolean withCount) {
+
+		List<Order> orders = orderRepository.findAllByCriteria(orderSearch, PageLimit.offset(offset), PageLimit.limit(limit));
+
+		List<SimpleOrderDto> result = orders.stream()
+				.map(SimpleOrderDto::new)
+				.collect(toList());
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (withCount) {
+			response.header("X-Total-Count", String.valueOf(orderRepository.countByCriteria(orderSearch)));
+		}
+		return response.body(result);
+	}
+
 	/**
 	 * fetch 조인
 	 */
 	@GetMapping("/api/v3/simple-orders")
 	public List<SimpleOrderDto> ordersV3() {
-		List<Order> orders = orderRepository.findAllWithMemberDelivery();
+		List<Order> orders = orderRepository.findAllWithMemberDeliveryReadOnly();
 
 		List<SimpleOrderDto> result = orders.stream()
 			.map(o -> new SimpleOrderDto(o))
@@ -68,9 +98,15 @@ public class OrderSimpleApiController {
 		return result;
 	}
 
+	/**
+	 * 주문 요약 테이블(order_summary) 한 곳에서 조인 없이 조회
+	 * 조인해서 DTO로 바로 조회하던 방식은 OrderSimpleQueryRepository.findOrderDtos
+	 */
 	@GetMapping("/api/v4/simple-orders")
-	public List<OrderSimpleQueryDto> ordersV4() {
-		return orderSimpleQueryRepository.findOrderDtos();
+	public List<OrderSimpleQueryDto> ordersV4(
+		@RequestParam(value = "offset", defaultValue = "0") int offset,
+		@RequestParam(value = "limit", defaultValue = "100") int limit) {
+		return orderSummaryRepository.findOrderDtos(PageLimit.offset(offset), PageLimit.limit(limit));
 	}
 
 	@Data
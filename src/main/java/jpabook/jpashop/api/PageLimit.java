@@ -0,0 +1,22 @@
+package jpabook.jpashop.api;
+
+/**
+ * 목록 API의 limit, offset 보정
+ * 0 이하나 너무 큰 limit이 그대로 setMaxResults로 넘어가지 않도록 1 ~ MAX_LIMIT 범위로 맞춘다.
+ * 기존 엔드포인트(V3.1 등)의 동작은 바꾸지 않고 새로 추가하는 엔드포인트에만 사용한다.
+ */
+final class PageLimit {
+
+	static final int MAX_LIMIT = 1000;
+
+	private PageLimit() {
+	}
+
+	static int limit(int limit) {
+		return Math.max(1, Math.min(limit, MAX_LIMIT));
+	}
+
+	static int offset(int offset) {
+		return Math.max(0, offset);
+	}
+}
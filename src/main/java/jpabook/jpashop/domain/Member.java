@@ -1,20 +1,32 @@
 package jpabook.jpashop.domain;
 
+import static lombok.AccessLevel.NONE;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import java.util.ArrayList;
 import java.util.List;
 import jpabook.jpashop.domain.item.Address;
 import jpabook.jpashop.domain.order.Order;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_member_name", columnNames = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
 @Getter @Setter
 public class Member {
     @Id @GeneratedValue
@@ -26,7 +38,13 @@ public class Member {
     @Embedded
     private Address address;
 
+    @Version
+    @Setter(NONE)
+    private Long version;
+
+    // 주문이 추가될 때마다 회원 버전이 올라가면 같은 회원의 동시 주문/취소가 충돌하므로 버전 대상에서 제외
     @JsonIgnore
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "member")
     private List<Order> orders = new ArrayList<>();
 }
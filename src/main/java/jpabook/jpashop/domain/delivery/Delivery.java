@@ -2,6 +2,7 @@ package jpabook.jpashop.domain.delivery;
 
 import static jakarta.persistence.EnumType.STRING;
 import static jakarta.persistence.FetchType.LAZY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
@@ -11,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jpabook.jpashop.domain.item.Address;
 import jpabook.jpashop.domain.order.Order;
 import lombok.Getter;
@@ -20,7 +22,9 @@ import lombok.Setter;
 @Getter
 @Setter
 public class Delivery {
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "delivery_seq_generator")
+    @SequenceGenerator(name = "delivery_seq_generator", sequenceName = "delivery_seq", allocationSize = 50) // pooled optimizer
     @Column(name = "delivery_id")
     private Long id;
 
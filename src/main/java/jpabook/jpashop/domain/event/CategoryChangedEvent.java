@@ -0,0 +1,13 @@
+package jpabook.jpashop.domain.event;
+
+import lombok.Getter;
+
+@Getter
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
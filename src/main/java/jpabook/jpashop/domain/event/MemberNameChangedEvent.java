@@ -0,0 +1,15 @@
+package jpabook.jpashop.domain.event;
+
+import lombok.Getter;
+
+@Getter
+public class MemberNameChangedEvent {
+
+    private final Long memberId;
+    private final String name;
+
+    public MemberNameChangedEvent(Long memberId, String name) {
+        this.memberId = memberId;
+        this.name = name;
+    }
+}
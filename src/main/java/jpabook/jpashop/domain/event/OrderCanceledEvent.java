@@ -0,0 +1,14 @@
+package jpabook.jpashop.domain.event;
+
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class OrderCanceledEvent {
+
+    private final List<Long> orderIds;
+
+    public OrderCanceledEvent(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+}
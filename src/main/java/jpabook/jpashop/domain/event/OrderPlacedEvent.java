@@ -0,0 +1,15 @@
+package jpabook.jpashop.domain.event;
+
+import java.util.List;
+import jpabook.jpashop.domain.order.Order;
+import lombok.Getter;
+
+@Getter
+public class OrderPlacedEvent {
+
+    private final List<Order> orders;
+
+    public OrderPlacedEvent(List<Order> orders) {
+        this.orders = orders;
+    }
+}
@@ -1,6 +1,7 @@
 package jpabook.jpashop.domain.item;
 
 import static jakarta.persistence.FetchType.LAZY;
+import static lombok.AccessLevel.NONE;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -35,15 +36,24 @@ public class Category {
     )
     private List<Item> items = new ArrayList<>();
 
+    // 클로저 테이블은 저장 시점의 parent로 채우므로(CategoryRepository.save) 부모는 addChildCategory로만 정한다.
+    @Setter(NONE)
     @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "parent_id")
     private Category parent;
 
+    @Setter(NONE)
     @OneToMany(mappedBy = "parent")
     private List<Category> child = new ArrayList<>();
 
+    /**
+     * 새 카테고리만 붙일 수 있다 (저장된 카테고리를 옮기면 클로저 테이블과 어긋남)
+     */
     public void addChildCategory(Category child) {
+        if (child.getId() != null || child.getParent() != null) {
+            throw new IllegalStateException("이미 저장된 카테고리는 옮길 수 없습니다.");
+        }
         this.child.add(child);
-        child.setParent(this);
+        child.parent = this;
     }
 }
@@ -0,0 +1,54 @@
+package jpabook.jpashop.domain.item;
+
+import static lombok.AccessLevel.PROTECTED;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 카테고리 클로저 테이블
+ * 조상-자손 쌍을 모두 저장해서(자기 자신 depth 0 포함) 하위 트리 전체를 한 번의 조회로 찾는다.
+ * PK(ancestor_id, descendant_id)가 "X 아래 전체" 조회 인덱스 역할을 한다.
+ */
+@Entity
+@IdClass(CategoryClosure.Key.class)
+@Table(name = "category_closure", indexes = @Index(name = "idx_category_closure_descendant_id", columnList = "descendant_id"))
+@Getter
+@NoArgsConstructor(access = PROTECTED)
+public class CategoryClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    private int depth;
+
+    public static CategoryClosure self(Long categoryId) {
+        CategoryClosure closure = new CategoryClosure();
+        closure.ancestorId = categoryId;
+        closure.descendantId = categoryId;
+        closure.depth = 0;
+        return closure;
+    }
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -1,7 +1,9 @@
 package jpabook.jpashop.domain.item.extend;
 
 import static jakarta.persistence.InheritanceType.SINGLE_TABLE;
+import static lombok.AccessLevel.NONE;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.Entity;
@@ -9,16 +11,21 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Version;
 import java.util.ArrayList;
 import java.util.List;
 import jpabook.jpashop.domain.item.Category;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Inheritance(strategy = SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item") // Book, Album, Movie도 같은 영역 사용
 @Getter @Setter
 public abstract class Item {
     @Id @GeneratedValue
@@ -29,6 +36,11 @@ public abstract class Item {
     private int price;
     private int stockQuantity;
 
+    // 취소(addStock)와 주문이 같은 상품을 동시에 바꿀 때 갱신 유실 방지
+    @Version
+    @Setter(NONE)
+    private Long version;
+
     @ManyToMany(mappedBy = "items")
     private List<Category> categories = new ArrayList<>();
 
@@ -3,10 +3,12 @@ package jpabook.jpashop.domain.order;
 import static jakarta.persistence.CascadeType.ALL;
 import static jakarta.persistence.EnumType.STRING;
 import static jakarta.persistence.FetchType.LAZY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 import static java.time.LocalDateTime.now;
 import static jpabook.jpashop.domain.delivery.DeliveryStatus.COMP;
 import static jpabook.jpashop.domain.order.OrderStatus.CANCEL;
 import static jpabook.jpashop.domain.order.OrderStatus.ORDER;
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PROTECTED;
 
 import jakarta.persistence.Column;
@@ -14,11 +16,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,11 +34,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_order_date_id", columnList = "order_date, order_id"))
 @Getter @Setter
 @NoArgsConstructor(access = PROTECTED)
 public class Order {
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "orders_seq_generator")
+    @SequenceGenerator(name = "orders_seq_generator", sequenceName = "orders_seq", allocationSize = 50) // pooled optimizer
     @Column(name = "order_id")
     private Long id;
 
@@ -53,6 +60,10 @@ public class Order {
     @Enumerated(STRING)
     private OrderStatus status;
 
+    @Version
+    @Setter(NONE)
+    private Long version;
+
     public void setMember(Member member) {
         this.member = member;
         member.getOrders().add(this);
@@ -0,0 +1,55 @@
+package jpabook.jpashop.domain.order;
+
+import static jakarta.persistence.EnumType.STRING;
+import static lombok.AccessLevel.PROTECTED;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import jpabook.jpashop.domain.item.Address;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 요약 조회 모델 (orders + member + delivery 비정규화)
+ * 주문/취소/회원 이름 변경 이벤트로 갱신한다. (OrderSummaryUpdater)
+ */
+@Entity
+@Table(name = "order_summary", indexes = @Index(name = "idx_order_summary_member_id", columnList = "member_id"))
+@Getter
+@NoArgsConstructor(access = PROTECTED)
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private String memberName;
+
+    private LocalDateTime orderDate;
+
+    @Enumerated(STRING)
+    private OrderStatus status;
+
+    @Embedded
+    private Address address;
+
+    public static OrderSummary of(Order order) {
+        OrderSummary summary = new OrderSummary();
+        summary.orderId = order.getId();
+        summary.memberId = order.getMember().getId();
+        summary.memberName = order.getMember().getName();
+        summary.orderDate = order.getOrderDate();
+        summary.status = order.getStatus();
+        summary.address = order.getDelivery().getAddress();
+        return summary;
+    }
+}
@@ -0,0 +1,8 @@
+package jpabook.jpashop.exception;
+
+public class SqlStatementBudgetExceededException extends RuntimeException {
+
+    public SqlStatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
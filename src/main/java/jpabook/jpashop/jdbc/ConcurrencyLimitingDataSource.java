@@ -0,0 +1,87 @@
+package jpabook.jpashop.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 커넥션을 동시에 빌려갈 수 있는 수를 세마포어로 제한한다.
+ * 가상 스레드 수천 개가 한꺼번에 커넥션 풀로 몰리지 않도록 풀 앞에서 (공정하게) 줄을 세운다.
+ * 커넥션을 close 하면 허가가 반납된다.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+	private final long acquireTimeoutMillis;
+
+	public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, long acquireTimeoutMillis) {
+		super(target);
+		this.permits = new Semaphore(maxConcurrency, true);
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection());
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection(username, password));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	public int availablePermits() {
+		return permits.availablePermits();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException("JDBC 동시 실행 한도 초과, " + acquireTimeoutMillis + "ms 동안 대기");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("JDBC 동시 실행 대기 중 인터럽트", e);
+		}
+	}
+
+	private Connection limited(Connection target) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+			(proxy, method, args) -> {
+				if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+					try {
+						return method.invoke(target, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					} finally {
+						permits.release();
+					}
+				}
+				try {
+					return method.invoke(target, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			});
+	}
+}
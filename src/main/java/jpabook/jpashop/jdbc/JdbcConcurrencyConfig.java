@@ -0,0 +1,34 @@
+package jpabook.jpashop.jdbc;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * jpashop.jdbc.concurrency-limit.enabled=true 일 때 DataSource를 ConcurrencyLimitingDataSource로 감싼다.
+ * 가상 스레드 모드(spring.threads.virtual.enabled)와 같이 사용
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpashop.jdbc.concurrency-limit", name = "enabled", havingValue = "true")
+public class JdbcConcurrencyConfig {
+
+	@Bean
+	static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+		int maxConcurrency = environment.getProperty("jpashop.jdbc.concurrency-limit.max-concurrency", Integer.class,
+			environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+		long acquireTimeoutMillis = environment.getProperty("jpashop.jdbc.concurrency-limit.acquire-timeout-ms", Long.class, 30_000L);
+
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+					return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeoutMillis);
+				}
+				return bean;
+			}
+		};
+	}
+}
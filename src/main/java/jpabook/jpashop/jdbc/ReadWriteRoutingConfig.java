@@ -0,0 +1,86 @@
+package jpabook.jpashop.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import jpabook.jpashop.jdbc.ReadWriteRoutingProperties.Replica;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * jpashop.datasource.routing.enabled=true 일 때 스프링 부트가 만든 DataSource(primary)를
+ * LazyConnectionDataSourceProxy(ReadWriteRoutingDataSource)로 감싼다.
+ * P6Spy, 동시 실행 제한보다 먼저 감싸서 복제본 SQL도 로그와 제한에 포함되게 한다.
+ *
+ * 로컬에서는 H2 서버를 하나 더 띄워서(-tcpPort 9093) 복제본 대신 사용할 수 있다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpashop.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+	@Bean
+	static ReadWriteRoutingPostProcessor readWriteRoutingPostProcessor(Environment environment) {
+		ReadWriteRoutingProperties properties = Binder.get(environment)
+			.bind("jpashop.datasource.routing", ReadWriteRoutingProperties.class)
+			.orElseGet(ReadWriteRoutingProperties::new);
+		return new ReadWriteRoutingPostProcessor(properties);
+	}
+
+	static class ReadWriteRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+		private final ReadWriteRoutingProperties properties;
+		private final List<ReadWriteRoutingDataSource> created = new ArrayList<>();
+
+		ReadWriteRoutingPostProcessor(ReadWriteRoutingProperties properties) {
+			this.properties = properties;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (bean instanceof DataSource primary && !(bean instanceof LazyConnectionDataSourceProxy)) {
+				ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas(), properties.getStrategy(),
+					new ReplicationLagGuard(properties.getLagGuardMs()), properties.getRetryAfterMs());
+				created.add(routing);
+				return new LazyConnectionDataSourceProxy(routing);
+			}
+			return bean;
+		}
+
+		private List<DataSource> replicas() {
+			List<DataSource> replicas = new ArrayList<>();
+			for (Replica replica : properties.getReplicas()) {
+				// 풀은 첫 커넥션 요청 때 시작되므로 복제본이 내려가 있어도 애플리케이션은 뜬다
+				HikariDataSource dataSource = new HikariDataSource();
+				dataSource.setPoolName("replica-" + replicas.size());
+				dataSource.setJdbcUrl(replica.getUrl());
+				dataSource.setUsername(replica.getUsername());
+				dataSource.setPassword(replica.getPassword());
+				dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+				dataSource.setReadOnly(true);
+				replicas.add(dataSource);
+			}
+			return replicas;
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+		@Override
+		public void destroy() throws IOException {
+			for (ReadWriteRoutingDataSource routing : created) {
+				routing.close();
+			}
+		}
+	}
+}
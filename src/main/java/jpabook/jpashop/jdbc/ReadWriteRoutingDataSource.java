@@ -0,0 +1,216 @@
+package jpabook.jpashop.jdbc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 복제본으로, 나머지는 primary로 보낸다.
+ *
+ * 1. 복제본 선택: ROUND_ROBIN(차례대로) 또는 LEAST_LOADED(빌려간 커넥션이 가장 적은 복제본)
+ * 2. 복제본에서 커넥션을 얻지 못하면 retryAfterMillis 동안 후보에서 빼고 다음 복제본, 마지막에는 primary로 넘어간다.
+ * 3. 쓰기 SQL을 실행한 트랜잭션이 커밋되면 ReplicationLagGuard에 기록해서 잠시 동안 읽기도 primary에서 한다.
+ *
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 동기화되지 않으므로
+ * 반드시 LazyConnectionDataSourceProxy로 감싸서 첫 SQL 실행 시점에 커넥션을 고르게 해야 한다.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+	public enum Strategy {
+		ROUND_ROBIN, LEAST_LOADED
+	}
+
+	private static final Set<String> READ_KEYWORDS = Set.of("select", "with", "values", "show", "explain");
+
+	private final DataSource primary;
+	private final List<Replica> replicas;
+	private final Strategy strategy;
+	private final ReplicationLagGuard lagGuard;
+	private final long retryAfterMillis;
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Strategy strategy,
+		ReplicationLagGuard lagGuard, long retryAfterMillis) {
+		this.primary = primary;
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.strategy = strategy;
+		this.lagGuard = lagGuard;
+		this.retryAfterMillis = retryAfterMillis;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getConnection(null, null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return recordWriteAfterCommit(connect(primary, username, password));
+		}
+
+		if (lagGuard.isReplicaReadable()) {
+			for (Replica replica : candidates()) {
+				try {
+					return replica.getConnection(username, password);
+				} catch (SQLException e) {
+					replica.markDown(retryAfterMillis);
+					log.warn("복제본 커넥션 실패, {}ms 동안 제외합니다: {}", retryAfterMillis, e.getMessage());
+				}
+			}
+		}
+		return connect(primary, username, password);
+	}
+
+	private List<Replica> candidates() {
+		long now = System.currentTimeMillis();
+		List<Replica> available = new ArrayList<>(replicas.size());
+		int start = replicas.isEmpty() ? 0 : Math.floorMod(next.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get((start + i) % replicas.size());
+			if (replica.isAvailable(now)) {
+				available.add(replica);
+			}
+		}
+		if (strategy == Strategy.LEAST_LOADED) {
+			available.sort(Comparator.comparingInt(Replica::active));
+		}
+		return available;
+	}
+
+	/**
+	 * 쓰기 SQL을 실행한 트랜잭션만 커밋 후 ReplicationLagGuard에 기록한다.
+	 * readOnly가 아니어도 조회만 한 트랜잭션(기본 @Transactional 서비스의 조회 등)은 복제본 읽기를 막지 않는다.
+	 */
+	private Connection recordWriteAfterCommit(Connection target) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return target;
+		}
+		AtomicBoolean written = new AtomicBoolean();
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				if (written.get()) {
+					lagGuard.recordWrite();
+				}
+			}
+		});
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+			(proxy, method, args) -> {
+				String name = method.getName();
+				if (("prepareStatement".equals(name) || "prepareCall".equals(name)) && isWrite((String) args[0])) {
+					written.set(true);
+				}
+				Object result = invoke(method, target, args);
+				if (result instanceof Statement statement && "createStatement".equals(name)) {
+					return trackWrites(statement, written);
+				}
+				return result;
+			});
+	}
+
+	/**
+	 * createStatement는 실행할 때 SQL을 받으므로 execute*, addBatch 시점에 판단한다.
+	 */
+	private static Statement trackWrites(Statement target, AtomicBoolean written) {
+		return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{Statement.class},
+			(proxy, method, args) -> {
+				String name = method.getName();
+				if ((name.startsWith("execute") || "addBatch".equals(name))
+					&& args != null && args.length > 0 && args[0] instanceof String sql && isWrite(sql)) {
+					written.set(true);
+				}
+				return invoke(method, target, args);
+			});
+	}
+
+	/**
+	 * 첫 키워드로 판단한다. (주석은 건너뜀)
+	 */
+	static boolean isWrite(String sql) {
+		String statement = sql.stripLeading();
+		while (statement.startsWith("/*") && statement.contains("*/")) {
+			statement = statement.substring(statement.indexOf("*/") + 2).stripLeading();
+		}
+		String keyword = statement.split("[\\s(]", 2)[0].toLowerCase();
+		return !READ_KEYWORDS.contains(keyword);
+	}
+
+	private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+		return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof Closeable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+	private static class Replica {
+
+		private final DataSource dataSource;
+		private final AtomicInteger active = new AtomicInteger();
+		private volatile long downUntil;
+
+		Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		boolean isAvailable(long now) {
+			return now >= downUntil;
+		}
+
+		void markDown(long millis) {
+			downUntil = System.currentTimeMillis() + millis;
+		}
+
+		int active() {
+			return active.get();
+		}
+
+		Connection getConnection(String username, String password) throws SQLException {
+			Connection target = connect(dataSource, username, password);
+			active.incrementAndGet();
+			AtomicBoolean released = new AtomicBoolean();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+				(proxy, method, args) -> {
+					if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+						active.decrementAndGet();
+					}
+					try {
+						return method.invoke(target, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		}
+	}
+}
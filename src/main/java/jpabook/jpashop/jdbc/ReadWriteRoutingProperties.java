@@ -0,0 +1,39 @@
+package jpabook.jpashop.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import jpabook.jpashop.jdbc.ReadWriteRoutingDataSource.Strategy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 읽기/쓰기 분리 설정 (ReadWriteRoutingDataSource)
+ * spring.datasource는 primary, replicas는 읽기 전용 트랜잭션에서 사용할 복제본
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.datasource.routing")
+public class ReadWriteRoutingProperties {
+
+	private boolean enabled = false;
+
+	private Strategy strategy = Strategy.ROUND_ROBIN;
+
+	// 커밋 후 이 시간 동안은 읽기 전용 트랜잭션도 primary에서 읽는다 (복제 지연 대비, 0이면 사용 안 함)
+	private long lagGuardMs = 1000;
+
+	// 커넥션을 얻지 못한 복제본은 이 시간 동안 후보에서 뺀다
+	private long retryAfterMs = 5000;
+
+	private List<Replica> replicas = new ArrayList<>();
+
+	@Getter
+	@Setter
+	public static class Replica {
+		private String url;
+		private String username;
+		private String password;
+		private int maximumPoolSize = 10;
+	}
+}
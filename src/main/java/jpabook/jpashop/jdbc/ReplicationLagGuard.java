@@ -0,0 +1,27 @@
+package jpabook.jpashop.jdbc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쓰기 직후 복제본 읽기 방지 (read-your-writes)
+ * 쓰기 SQL을 실행한 트랜잭션이 커밋되고 lagMillis가 지나기 전까지는 복제본에 아직 반영되지 않았을 수 있으므로 primary에서 읽는다.
+ * 요청자를 구분하지 않는 전역 기준이라 쓰기가 많으면 읽기도 primary로 몰린다. (lagMillis는 실제 복제 지연에 맞춘다)
+ * 조회만 한 읽기/쓰기 트랜잭션은 기록하지 않는다. (ReadWriteRoutingDataSource)
+ */
+public class ReplicationLagGuard {
+
+	private final long lagMillis;
+	private final AtomicLong lastWriteAt = new AtomicLong();
+
+	public ReplicationLagGuard(long lagMillis) {
+		this.lagMillis = lagMillis;
+	}
+
+	public void recordWrite() {
+		lastWriteAt.accumulateAndGet(System.currentTimeMillis(), Math::max);
+	}
+
+	public boolean isReplicaReadable() {
+		return lagMillis <= 0 || System.currentTimeMillis() - lastWriteAt.get() >= lagMillis;
+	}
+}
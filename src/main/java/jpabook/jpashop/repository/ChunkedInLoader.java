@@ -0,0 +1,179 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.QueryProducer;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * id 목록을 in 절로 나눠서 조회한다.
+ *
+ * 1. DB 파라미터 개수 제한을 넘지 않도록 chunkSize 단위로 자른다.
+ * 2. 마지막 청크는 마지막 id를 반복해서 2의 제곱수 길이로 채운다.
+ *    (hibernate.query.in_clause_parameter_padding과 같은 방식, in 절 결과는 같고
+ *     SQL 모양이 log2(chunkSize) + 1개로 줄어 statement 캐시가 재사용된다)
+ * 3. parallelism > 1이면 호출 스레드와 applicationTaskExecutor의 (parallelism - 1)개 작업이 청크를 나눠 실행한다.
+ *    호출 스레드의 EntityManager는 다른 스레드에서 쓸 수 없으므로 작업마다 StatelessSession과 트랜잭션을 따로 연다.
+ *    (자기 커넥션이라 호출 트랜잭션에서 아직 커밋하지 않은 변경은 보이지 않음, 엔티티를 반환하지 않는 DTO 조회에만 사용)
+ *    작업은 커넥션을 하나씩 더 쓰고, 커넥션을 얻지 못하면 호출 스레드가 대신 처리한다. (loadParallel)
+ */
+@Slf4j
+@Component
+public class ChunkedInLoader {
+
+	private final int chunkSize;
+	private final int parallelism;
+	private final TaskExecutor applicationTaskExecutor;
+	private final EntityManager em;
+
+	public ChunkedInLoader(InQueryProperties properties, TaskExecutor applicationTaskExecutor, EntityManager em) {
+		this.chunkSize = Integer.highestOneBit(Math.max(1, properties.getChunkSize()));
+		this.parallelism = Math.max(1, properties.getParallelism());
+		this.applicationTaskExecutor = applicationTaskExecutor;
+		this.em = em;
+	}
+
+	/**
+	 * query는 청크를 실행할 세션을 받는다.
+	 * 호출 스레드에서 실행하면 현재 트랜잭션의 Session, 병렬로 실행하면 작업마다 새로 연 StatelessSession
+	 */
+	public <T> List<T> load(Collection<Long> ids, BiFunction<QueryProducer, List<Long>, List<T>> query) {
+		List<List<Long>> chunks = chunk(ids);
+		if (chunks.size() <= 1 || parallelism == 1) {
+			Session session = em.unwrap(Session.class);
+			return loadSequentially(chunks, chunk -> query.apply(session, chunk));
+		}
+		return loadParallel(chunks, query);
+	}
+
+	/**
+	 * parallelism 설정과 상관없이 호출 스레드에서 순서대로 실행 (StatelessSession처럼 스레드에 묶인 자원을 쓰는 쿼리)
+	 */
+	public <T> List<T> loadSequentially(Collection<Long> ids, Function<List<Long>, List<T>> query) {
+		return loadSequentially(chunk(ids), query);
+	}
+
+	private <T> List<T> loadSequentially(List<List<Long>> chunks, Function<List<Long>, List<T>> query) {
+		List<T> result = new ArrayList<>();
+		for (List<Long> chunk : chunks) {
+			result.addAll(query.apply(chunk));
+		}
+		return result;
+	}
+
+	/**
+	 * 호출 스레드도 현재 세션으로 청크를 가져가 실행한다. (caller-runs)
+	 * 다른 스레드는 자기 커넥션을 얻은 뒤에만 청크를 가져가므로, 풀(또는 jdbc.concurrency-limit)이 가득 차서
+	 * 커넥션을 얻지 못해도 호출 스레드가 남은 청크를 모두 처리한다.
+	 * 요청마다 커넥션을 하나 쥔 채로 더 기다리다가 서로 막히는 일이 없다.
+	 */
+	private <T> List<T> loadParallel(List<List<Long>> chunks, BiFunction<QueryProducer, List<Long>, List<T>> query) {
+		ParallelLoad<T> load = new ParallelLoad<>(chunks, query);
+		int workers = Math.min(parallelism, chunks.size()) - 1;
+		for (int i = 0; i < workers; i++) {
+			applicationTaskExecutor.execute(load::runInOwnSession);
+		}
+		load.run(em.unwrap(Session.class));
+		return load.await();
+	}
+
+	private final class ParallelLoad<T> {
+
+		private final List<List<Long>> chunks;
+		private final BiFunction<QueryProducer, List<Long>, List<T>> query;
+		private final AtomicInteger next = new AtomicInteger();
+		private final AtomicReferenceArray<List<T>> results;
+		private final CountDownLatch done;
+		private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+		private ParallelLoad(List<List<Long>> chunks, BiFunction<QueryProducer, List<Long>, List<T>> query) {
+			this.chunks = chunks;
+			this.query = query;
+			this.results = new AtomicReferenceArray<>(chunks.size());
+			this.done = new CountDownLatch(chunks.size());
+		}
+
+		private void run(QueryProducer session) {
+			int index;
+			while ((index = next.getAndIncrement()) < chunks.size()) {
+				try {
+					results.set(index, query.apply(session, chunks.get(index)));
+				} catch (RuntimeException e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					done.countDown();
+				}
+			}
+		}
+
+		private void runInOwnSession() {
+			if (next.get() >= chunks.size()) {
+				return;
+			}
+			try (StatelessSession session = em.getEntityManagerFactory().unwrap(SessionFactory.class).openStatelessSession()) {
+				// 트랜잭션을 시작할 때 커넥션을 얻는다 (얻기 전에는 청크를 가져가지 않음)
+				Transaction tx = session.beginTransaction();
+				run(session);
+				tx.commit();
+			} catch (RuntimeException e) {
+				// 커넥션을 얻지 못함 -> 남은 청크는 호출 스레드가 처리
+				log.debug("in-query worker skipped: {}", e.getMessage());
+			}
+		}
+
+		private List<T> await() {
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("in 절 분할 조회가 중단되었습니다.", e);
+			}
+			if (failure.get() != null) {
+				throw failure.get();
+			}
+			List<T> result = new ArrayList<>();
+			for (int i = 0; i < chunks.size(); i++) {
+				result.addAll(results.get(i));
+			}
+			return result;
+		}
+	}
+
+	private List<List<Long>> chunk(Collection<Long> ids) {
+		List<Long> distinct = ids.stream().distinct().toList();
+		List<List<Long>> chunks = new ArrayList<>((distinct.size() + chunkSize - 1) / chunkSize);
+		for (int from = 0; from < distinct.size(); from += chunkSize) {
+			chunks.add(pad(distinct.subList(from, Math.min(from + chunkSize, distinct.size()))));
+		}
+		return chunks;
+	}
+
+	private static List<Long> pad(List<Long> chunk) {
+		int size = chunk.size();
+		int padded = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+		if (padded == size) {
+			return chunk;
+		}
+		List<Long> result = new ArrayList<>(padded);
+		result.addAll(chunk);
+		Long last = chunk.get(size - 1);
+		while (result.size() < padded) {
+			result.add(last);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,23 @@
+package jpabook.jpashop.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * in 절 분할 조회 설정 (ChunkedInLoader)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.in-query")
+public class InQueryProperties {
+
+	// in 절 하나에 넣는 최대 파라미터 수 (2의 제곱수로 내림, Oracle 제한 1000 이하)
+	private int chunkSize = 512;
+
+	// 동시에 실행할 청크 수(호출 스레드 포함), 1이면 호출 스레드에서 순서대로 실행
+	// 요청 하나가 커넥션을 최대 parallelism개까지 쓰므로 커넥션 풀(jdbc.concurrency-limit을 켜면 그 한도)보다 충분히 작게 잡는다.
+	// 커넥션을 더 얻지 못하면 기다리지 않고 호출 스레드가 나머지 청크를 처리하므로 풀이 가득 차도 멈추지는 않지만,
+	// 그동안 작업 스레드는 커넥션 획득 타임아웃까지 applicationTaskExecutor를 점유한다.
+	private int parallelism = 1;
+}
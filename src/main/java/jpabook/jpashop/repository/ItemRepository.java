@@ -1,10 +1,19 @@
 package jpabook.jpashop.repository;
 
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import jpabook.jpashop.domain.item.extend.Item;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Repository
 @RequiredArgsConstructor
@@ -24,8 +33,89 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    public List<Item> findAllById(Collection<Long> ids) {
+        return em.createQuery("select i from Item i where i.id in :ids", Item.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * 재고 차감 (조건부 UPDATE)
+     * 재고가 충분할 때만 한 문장으로 차감하기 때문에 동시에 주문이 들어와도 초과 판매가 없고,
+     * 비관적 락처럼 row를 미리 잡고 기다리지 않는다.
+     * 버전도 올려서, 같은 상품을 엔티티로 수정하는 트랜잭션(주문 취소)과 충돌을 감지한다.
+     * JPQL bulk UPDATE는 실행할 때마다 item 2차 캐시 영역 전체와 쿼리 캐시를 비우므로
+     * JDBC로 실행하고 2차 캐시에서는 이 상품만 지운다. (addStockAll과 같은 방식)
+     * @return 차감 성공 여부
+     */
+    public boolean removeStock(Long itemId, int quantity) {
+        em.flush();
+        int updated = em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "update item set stock_quantity = stock_quantity - ?, version = version + 1"
+                        + " where item_id = ? and stock_quantity >= ?")) {
+                ps.setInt(1, quantity);
+                ps.setLong(2, itemId);
+                ps.setInt(3, quantity);
+                return ps.executeUpdate();
+            }
+        });
+        if (updated == 1) {
+            evict(List.of(itemId));
+        }
+        return updated == 1;
+    }
+
+    /**
+     * 상품별 재고 복구 (주문 일괄 취소)
+     * 상품마다 UPDATE 한 문장씩 JDBC 배치로 한 번에 보낸다. (데드락을 피하려고 상품 id 순서로)
+     * JPQL을 거치지 않으므로 2차 캐시의 해당 상품은 직접 지운다.
+     */
+    public void addStockAll(Map<Long, Integer> quantityByItem) {
+        if (quantityByItem.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> sorted = new TreeMap<>(quantityByItem);
+        em.flush();
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "update item set stock_quantity = stock_quantity + ?, version = version + 1 where item_id = ?")) {
+                for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+                    ps.setInt(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+
+        evict(sorted.keySet());
+    }
+
+    /**
+     * JDBC로 바꾼 상품을 2차 캐시에서 지운다.
+     * 커밋 전에 다른 트랜잭션이 이전 값을 다시 캐시에 넣을 수 있으므로 트랜잭션이 끝난 뒤 한 번 더 지운다.
+     */
+    private void evict(Collection<Long> itemIds) {
+        Cache cache = em.getEntityManagerFactory().getCache();
+        itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+                }
+            });
+        }
+    }
+
+    public void refresh(Item item) {
+        em.refresh(item);
+    }
+
     public List<Item> findAll() {
         return em.createQuery("select i from Item i", Item.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
                 .getResultList();
     }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package jpabook.jpashop.repository;
 
 import jakarta.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import jpabook.jpashop.domain.Member;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -18,18 +24,71 @@ public class MemberRepository {
         em.persist(member);
     }
 
+    /**
+     * 저장 후 바로 INSERT를 보내서 uk_member_name 위반을 이 자리에서 확인한다.
+     */
+    public void saveAndFlush(Member member) {
+        em.persist(member);
+        em.flush();
+    }
+
+    public void flush() {
+        em.flush();
+    }
+
+    /**
+     * 쌓여있는 INSERT를 JDBC 배치로 내보내고 영속성 컨텍스트를 비운다.
+     */
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+
     public Member findOne(Long id) {
         return em.find(Member.class, id);
     }
 
+    public List<Member> findAllById(Collection<Long> ids) {
+        return em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                 .setParameter("ids", ids)
+                 .getResultList();
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                  .getResultList();
     }
 
+    /**
+     * 엔티티를 만들지 않고 이름만 forward-only 커서로 넘겨준다. (트랜잭션 안에서 호출)
+     */
+    public void forEachName(int fetchSize, Consumer<String> consumer) {
+        try (ScrollableResults<String> names = em.unwrap(Session.class)
+                .createQuery("select m.name from Member m", String.class)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (names.next()) {
+                consumer.accept(names.get());
+            }
+        }
+    }
+
+    /**
+     * 주어진 이름 중 이미 있는 이름만 조회 (일괄 등록 중복 확인)
+     */
+    public List<String> findExistingNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("select m.name from Member m where m.name in :names", String.class)
+                 .setParameter("names", names)
+                 .getResultList();
+    }
+
     public List<Member> findByName(String name) {
         return em.createQuery("select m from Member m where m.name = :name", Member.class)
                  .setParameter("name", name)
+                 .setHint(HibernateHints.HINT_CACHEABLE, true)
                  .getResultList();
     }
 
@@ -1,11 +1,26 @@
 package jpabook.jpashop.repository;
 
+import static jpabook.jpashop.domain.order.OrderStatus.CANCEL;
+import static jpabook.jpashop.domain.order.OrderStatus.ORDER;
+
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Member_;
 import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.order.Order;
+import jpabook.jpashop.domain.order.Order_;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
@@ -23,6 +38,55 @@ public class OrderRepository {
         return em.find(Order.class, id);
     }
 
+    /**
+     * 쌓여있는 INSERT를 JDBC 배치로 내보내고 영속성 컨텍스트를 비운다.
+     */
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * 일괄 취소 검증용: 주문 상태와 배송 상태를 한 번에 조회 (id, status, deliveryStatus)
+     */
+    public List<Tuple> findCancelStatuses(Collection<Long> orderIds) {
+        return em.createQuery(
+                "select o.id as id, o.status as status, d.status as deliveryStatus"
+                    + " from Order o"
+                    + " join o.delivery d"
+                    + " where o.id in :orderIds", Tuple.class)
+            .setParameter("orderIds", orderIds)
+            .getResultList();
+    }
+
+    /**
+     * 주문 상태를 한 문장으로 CANCEL로 바꾼다. (버전도 올림)
+     * 영속성 컨텍스트의 Order는 바뀌지 않으므로 호출한 쪽에서 비워야 한다.
+     * @return 바뀐 주문 수, 그 사이 다른 트랜잭션이 먼저 취소했다면 요청한 수보다 적다
+     */
+    public int cancelAll(Collection<Long> orderIds) {
+        return em.createQuery(
+                "update versioned Order o set o.status = :cancel"
+                    + " where o.id in :orderIds and o.status = :order")
+            .setParameter("cancel", CANCEL)
+            .setParameter("order", ORDER)
+            .setParameter("orderIds", orderIds)
+            .executeUpdate();
+    }
+
+    /**
+     * 주문들의 상품별 주문 수량 합계 (itemId, count)
+     */
+    public List<Tuple> sumCountByItem(Collection<Long> orderIds) {
+        return em.createQuery(
+                "select oi.item.id as itemId, sum(oi.count) as count"
+                    + " from OrderItem oi"
+                    + " where oi.order.id in :orderIds"
+                    + " group by oi.item.id", Tuple.class)
+            .setParameter("orderIds", orderIds)
+            .getResultList();
+    }
+
     public List<Order> findAll(OrderSearch orderSearch) {
         return em.createQuery("select o from Order o join o.member m"+
             " where o.status = :status " +
@@ -34,6 +98,13 @@ public class OrderRepository {
     }
 
     public List<Order> findAllByString(OrderSearch orderSearch) {
+        return findAllByString(orderSearch, 1000); // 최대 1000건
+    }
+
+    /**
+     * 최대 건수를 직접 지정 (벤치마크에서 전략마다 같은 건수를 조회할 때)
+     */
+    public List<Order> findAllByString(OrderSearch orderSearch, int limit) {
 
         String jpql = "select o from Order o join o.member m";
         boolean isFirstCondition = true;
@@ -61,7 +132,7 @@ public class OrderRepository {
         }
 
         TypedQuery<Order> query = em.createQuery(jpql, Order.class)
-            .setMaxResults(1000);
+            .setMaxResults(limit);
 
         if (orderSearch.getOrderStatus() != null) {
             query = query.setParameter("status", orderSearch.getOrderStatus());
@@ -73,32 +144,160 @@ public class OrderRepository {
         return query.getResultList();
     }
 
+    /**
+     * JPA Criteria로 동적 검색 (최대 건수 제한 없이 페이징)
+     * 검색 조건 값은 파라미터로 바인딩되기 때문에 조건 조합(shape)이 같으면 같은 쿼리 플랜을 재사용한다.
+     * (hibernate.criteria.plan_cache_enabled)
+     * member, delivery는 페치 조인으로 한 번에 가져온다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Order> findAllByCriteria(OrderSearch orderSearch, int offset, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Order> cq = cb.createQuery(Order.class);
+        Root<Order> o = cq.from(Order.class);
+        Join<Order, Member> m = (Join<Order, Member>) o.fetch(Order_.member);
+        o.fetch(Order_.delivery);
+
+        cq.select(o)
+            .where(searchConditions(cb, o, m, orderSearch))
+            .orderBy(cb.asc(o.get(Order_.id)));
+
+        return em.createQuery(cq)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    public long countByCriteria(OrderSearch orderSearch) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Order> o = cq.from(Order.class);
+        Join<Order, Member> m = o.join(Order_.member);
+
+        cq.select(cb.count(o))
+            .where(searchConditions(cb, o, m, orderSearch));
+
+        return em.createQuery(cq).getSingleResult();
+    }
+
+    private Predicate[] searchConditions(CriteriaBuilder cb, Root<Order> o, Join<Order, Member> m, OrderSearch orderSearch) {
+        List<Predicate> criteria = new ArrayList<>();
+
+        //주문 상태 검색
+        if (orderSearch.getOrderStatus() != null) {
+            criteria.add(cb.equal(o.get(Order_.status), orderSearch.getOrderStatus()));
+        }
+
+        //회원 이름 검색
+        if (StringUtils.hasText(orderSearch.getMemberName())) {
+            criteria.add(cb.like(m.get(Member_.name), orderSearch.getMemberName()));
+        }
+
+        return criteria.toArray(new Predicate[0]);
+    }
+
     public List<Order> findAllWithMemberDelivery() {
-        return em.createQuery(
-                 "select o from Order o" +
-                    " join fetch o.member m" +
-                    " join fetch o.delivery d", Order.class).getResultList();
+        return withMemberDeliveryQuery().getResultList();
     }
 
 	public List<Order> findAllWithItem() {
-        return em.createQuery(
-            "select distinct o from Order o" // 여기서 distinct는 중복을 제거해줌(Entity에도 적용)
-                + " join fetch o.member m"
-                + " join fetch o.delivery d"
-                + " join fetch o.orderItems oi"
-                + " join fetch oi.item i", Order.class)
+        return withItemQuery()
             .setFirstResult(0)
             .setMaxResults(100)
             .getResultList();
 	}
 
     public List<Order> findAllWithMemberDelivery(int offset, int limit) {
-        return em.createQuery(
-                "select o from Order o"
-                    + " join fetch o.member m"
-                    + " join fetch o.delivery d", Order.class)
+        return withMemberDeliveryQuery()
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    /**
+     * 키셋 페이징: offset 대신 마지막으로 읽은 (orderDate, id) 이후부터 조회
+     * 인덱스(order_date, order_id)를 타기 때문에 몇 번째 페이지든 비용이 같다.
+     */
+    public List<Order> findAllWithMemberDelivery(OrderCursor cursor, int limit) {
+        return withMemberDeliveryQuery(cursor, limit).getResultList();
+    }
+
+    // ==API 응답용 읽기 전용 조회== //
+
+    /*
+     * 위 조회와 같고, 읽기 전용 힌트로 스냅샷을 만들지 않고 flush 때 변경 감지에서도 빠진다.
+     * 엔티티를 수정해도 반영되지 않으므로 응답을 만들 때만 사용한다.
+     */
+
+    public List<Order> findAllWithMemberDeliveryReadOnly() {
+        return withMemberDeliveryQuery()
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultList();
+    }
+
+    public List<Order> findAllWithItemReadOnly() {
+        return findAllWithItemReadOnly(100);
+    }
+
+    /**
+     * 최대 건수를 직접 지정 (벤치마크에서 전략마다 같은 건수를 조회할 때)
+     * 컬렉션 페치 조인이라 limit은 메모리에서 적용된다.
+     */
+    public List<Order> findAllWithItemReadOnly(int limit) {
+        return withItemQuery()
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setFirstResult(0)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    public List<Order> findAllWithMemberDeliveryReadOnly(int offset, int limit) {
+        return withMemberDeliveryQuery()
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
             .setFirstResult(offset)
             .setMaxResults(limit)
             .getResultList();
     }
+
+    public List<Order> findAllWithMemberDeliveryReadOnly(OrderCursor cursor, int limit) {
+        return withMemberDeliveryQuery(cursor, limit)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultList();
+    }
+
+    private TypedQuery<Order> withMemberDeliveryQuery() {
+        return em.createQuery(
+                "select o from Order o"
+                    + " join fetch o.member m"
+                    + " join fetch o.delivery d", Order.class);
+    }
+
+    private TypedQuery<Order> withItemQuery() {
+        return em.createQuery(
+            "select distinct o from Order o" // 여기서 distinct는 중복을 제거해줌(Entity에도 적용)
+                + " join fetch o.member m"
+                + " join fetch o.delivery d"
+                + " join fetch o.orderItems oi"
+                + " join fetch oi.item i", Order.class);
+    }
+
+    private TypedQuery<Order> withMemberDeliveryQuery(OrderCursor cursor, int limit) {
+        String jpql = "select o from Order o"
+            + " join fetch o.member m"
+            + " join fetch o.delivery d";
+        if (cursor != null) {
+            jpql += " where o.orderDate > :orderDate"
+                + " or (o.orderDate = :orderDate and o.id > :orderId)";
+        }
+        jpql += " order by o.orderDate, o.id";
+
+        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
+            .setMaxResults(limit);
+
+        if (cursor != null) {
+            query.setParameter("orderDate", cursor.getOrderDate())
+                .setParameter("orderId", cursor.getOrderId());
+        }
+        return query;
+    }
 }
\ No newline at end of file
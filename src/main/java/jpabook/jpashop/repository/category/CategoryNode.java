@@ -0,0 +1,17 @@
+package jpabook.jpashop.repository.category;
+
+import lombok.Getter;
+
+@Getter
+public class CategoryNode {
+
+    private final Long id;
+    private final String name;
+    private final Long parentId;
+
+    public CategoryNode(Long id, String name, Long parentId) {
+        this.id = id;
+        this.name = name;
+        this.parentId = parentId;
+    }
+}
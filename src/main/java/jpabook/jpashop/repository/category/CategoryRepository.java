@@ -0,0 +1,78 @@
+package jpabook.jpashop.repository.category;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import jpabook.jpashop.domain.item.Category;
+import jpabook.jpashop.domain.item.CategoryClosure;
+import jpabook.jpashop.domain.item.extend.Item;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class CategoryRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 카테고리 저장 + 클로저 행 추가 (부모는 이미 저장되어 있어야 함)
+     */
+    public void save(Category category) {
+        Category parent = category.getParent();
+        if (parent != null && parent.getId() == null) {
+            throw new IllegalStateException("부모 카테고리를 먼저 저장해야 합니다.");
+        }
+        em.persist(category);
+        saveClosure(category.getId(), parent == null ? null : parent.getId());
+    }
+
+    public Category findOne(Long id) {
+        return em.find(Category.class, id);
+    }
+
+    /**
+     * 새 카테고리의 클로저 행 추가
+     * 자기 자신(depth 0) + 부모의 모든 조상(부모 depth + 1)
+     */
+    private void saveClosure(Long categoryId, Long parentId) {
+        em.persist(CategoryClosure.self(categoryId));
+        if (parentId == null) {
+            return;
+        }
+        em.createNativeQuery(
+                "insert into category_closure (ancestor_id, descendant_id, depth)"
+                    + " select cc.ancestor_id, :categoryId, cc.depth + 1"
+                    + " from category_closure cc"
+                    + " where cc.descendant_id = :parentId")
+            .setParameter("categoryId", categoryId)
+            .setParameter("parentId", parentId)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(CategoryClosure.class)
+            .executeUpdate();
+    }
+
+    /**
+     * 트리 스냅샷용: id, name, parent id
+     */
+    public List<CategoryNode> findAllNodes() {
+        return em.createQuery(
+                "select new jpabook.jpashop.repository.category.CategoryNode(c.id, c.name, p.id)"
+                    + " from Category c"
+                    + " left join c.parent p", CategoryNode.class)
+            .getResultList();
+    }
+
+    /**
+     * 카테고리 X와 그 아래 모든 카테고리의 상품 (쿼리 1번)
+     */
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        return em.createQuery(
+                "select distinct i from Category c"
+                    + " join c.items i"
+                    + " where c.id in ("
+                    + "   select cc.descendantId from CategoryClosure cc where cc.ancestorId = :categoryId)", Item.class)
+            .setParameter("categoryId", categoryId)
+            .getResultList();
+    }
+}
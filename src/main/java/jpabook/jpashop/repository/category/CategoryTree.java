@@ -0,0 +1,59 @@
+package jpabook.jpashop.repository.category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 카테고리 트리 불변 스냅샷
+ * 변경될 때마다 통째로 새로 만들어서 교체하기 때문에 읽는 쪽은 락 없이 쿼리 0번으로 조회한다.
+ */
+public class CategoryTree {
+
+    public static final CategoryTree EMPTY = new CategoryTree(List.of());
+
+    private final Map<Long, CategoryNode> nodes;
+    private final Map<Long, List<CategoryNode>> children;
+
+    public CategoryTree(List<CategoryNode> all) {
+        Map<Long, CategoryNode> nodes = new HashMap<>();
+        Map<Long, List<CategoryNode>> children = new HashMap<>();
+        for (CategoryNode node : all) {
+            nodes.put(node.getId(), node);
+            if (node.getParentId() != null) {
+                children.computeIfAbsent(node.getParentId(), k -> new ArrayList<>()).add(node);
+            }
+        }
+        children.replaceAll((k, v) -> List.copyOf(v));
+        this.nodes = Collections.unmodifiableMap(nodes);
+        this.children = Collections.unmodifiableMap(children);
+    }
+
+    public CategoryNode get(Long id) {
+        CategoryNode node = nodes.get(id);
+        if (node == null) {
+            throw new IllegalArgumentException("존재하지 않는 카테고리입니다. id=" + id);
+        }
+        return node;
+    }
+
+    /**
+     * 최상위부터 자기 자신까지 (breadcrumb)
+     */
+    public List<CategoryNode> ancestors(Long id) {
+        List<CategoryNode> path = new ArrayList<>();
+        CategoryNode node = get(id);
+        while (node != null) {
+            path.add(node);
+            node = node.getParentId() == null ? null : nodes.get(node.getParentId());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public List<CategoryNode> children(Long id) {
+        return children.getOrDefault(id, List.of());
+    }
+}
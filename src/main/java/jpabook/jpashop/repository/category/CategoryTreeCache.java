@@ -0,0 +1,39 @@
+package jpabook.jpashop.repository.category;
+
+import jpabook.jpashop.domain.event.CategoryChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 카테고리 트리 스냅샷 보관
+ * 시작 시점과 카테고리 변경이 커밋된 뒤에 새 스냅샷을 만들어 한 번에 교체한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree = CategoryTree.EMPTY;
+
+    public CategoryTree get() {
+        return tree;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        tree = new CategoryTree(categoryRepository.findAllNodes());
+    }
+}
@@ -0,0 +1,52 @@
+package jpabook.jpashop.repository.member.query;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 회원 목록 조회 전용 (필요한 컬럼만 DTO로)
+ * 엔티티, Address, orders 프록시를 만들지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberQueryRepository {
+
+	private final EntityManager em;
+
+	/**
+	 * 키셋 페이징: lastId 다음 회원부터 limit명 (PK 인덱스를 타므로 몇 번째 페이지든 비용이 같다)
+	 */
+	public List<MemberQueryDto> findPage(Long lastId, int limit) {
+		return em.createQuery(
+				"select new jpabook.jpashop.repository.member.query.MemberQueryDto(m.id, m.name)"
+					+ " from Member m"
+					+ " where m.id > :lastId"
+					+ " order by m.id", MemberQueryDto.class)
+			.setParameter("lastId", lastId == null ? 0L : lastId)
+			.setMaxResults(limit)
+			.getResultList();
+	}
+
+	/**
+	 * 전체 회원을 List로 만들지 않고 forward-only 커서로 한 명씩 넘겨준다.
+	 */
+	public void streamAll(int fetchSize, Consumer<MemberQueryDto> consumer) {
+		try (ScrollableResults<MemberQueryDto> results = em.unwrap(Session.class).createQuery(
+				"select new jpabook.jpashop.repository.member.query.MemberQueryDto(m.id, m.name)"
+					+ " from Member m"
+					+ " order by m.id", MemberQueryDto.class)
+			.setFetchSize(fetchSize)
+			.scroll(ScrollMode.FORWARD_ONLY)) {
+
+			while (results.next()) {
+				consumer.accept(results.get());
+			}
+		}
+	}
+}
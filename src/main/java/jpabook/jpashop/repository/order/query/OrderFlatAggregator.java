@@ -0,0 +1,51 @@
+package jpabook.jpashop.repository.order.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * order_id 순으로 정렬된 OrderFlatDto를 한 번만 훑어서 OrderQueryDto로 묶는다.
+ * 주문 id가 바뀌는 순간 이전 주문을 downstream으로 넘기기 때문에 진행 중인 주문 하나만 들고 있고,
+ * SQL 정렬 순서도 그대로 유지된다.
+ * 모든 행을 넘긴 뒤에는 반드시 finish()를 호출해야 마지막 주문이 넘어간다.
+ */
+public class OrderFlatAggregator implements Consumer<OrderFlatDto> {
+
+	private final Consumer<OrderQueryDto> downstream;
+	private OrderQueryDto current;
+
+	public OrderFlatAggregator(Consumer<OrderQueryDto> downstream) {
+		this.downstream = downstream;
+	}
+
+	/**
+	 * 목록 조회용
+	 */
+	public static List<OrderQueryDto> aggregate(List<OrderFlatDto> flats) {
+		List<OrderQueryDto> result = new ArrayList<>();
+		OrderFlatAggregator aggregator = new OrderFlatAggregator(result::add);
+		flats.forEach(aggregator);
+		aggregator.finish();
+		return result;
+	}
+
+	@Override
+	public void accept(OrderFlatDto o) {
+		if (current == null || !current.getOrderId().equals(o.getOrderId())) {
+			if (current != null && current.getOrderId() > o.getOrderId()) {
+				throw new IllegalStateException("order_id 순으로 정렬된 결과만 묶을 수 있습니다.");
+			}
+			finish();
+			current = new OrderQueryDto(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress(), new ArrayList<>());
+		}
+		current.getOrderItems().add(new OrderItemQueryDto(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount()));
+	}
+
+	public void finish() {
+		if (current != null) {
+			downstream.accept(current);
+			current = null;
+		}
+	}
+}
@@ -6,14 +6,47 @@ import static java.util.stream.Collectors.toList;
 import jakarta.persistence.EntityManager;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import jpabook.jpashop.repository.ChunkedInLoader;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.springframework.stereotype.Repository;
 
+/**
+ * 조회 전용 DTO 조회
+ * 트랜잭션은 호출하는 서비스(OrderQueryService, OrderExportService)에서 읽기 전용으로 연다.
+ */
 @Repository
 @RequiredArgsConstructor
 public class OrderQueryRepository {
 
+	private static final String ORDERS_JPQL =
+		"select new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)"
+			+ " from Order o"
+			+ " join o.member m"
+			+ " join o.delivery d";
+
+	private static final String ORDER_ITEMS_IN_JPQL =
+		"select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)"
+			+ " from OrderItem oi"
+			+ " join oi.item i"
+			+ " where oi.order.id in :orderIds";
+
+	private static final String FLAT_JPQL =
+		"select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)"
+			+ " from Order o"
+			+ " join o.member m"
+			+ " join o.delivery d"
+			+ " join o.orderItems oi"
+			+ " join oi.item i"
+			+ " order by o.id";
+
 	private final EntityManager em;
+	private final ChunkedInLoader chunkedInLoader;
 
 	public List<OrderQueryDto> findOrderQueryDtos() {
 		List<OrderQueryDto> result = findOrders();
@@ -37,11 +70,7 @@ public class OrderQueryRepository {
 	}
 
 	private List<OrderQueryDto> findOrders() {
-		return em.createQuery(
-				"select new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)"
-					+ "from Order o"
-					+ " join o.member m"
-					+ " join o.delivery d", OrderQueryDto.class)
+		return em.createQuery(ORDERS_JPQL, OrderQueryDto.class)
 			.getResultList();
 	}
 
@@ -55,14 +84,15 @@ public class OrderQueryRepository {
 		return result;
 	}
 
+	/**
+	 * 주문 id를 한 번에 in 절로 넘기면 DB 파라미터 제한에 걸리고 목록 크기마다 새 SQL이 만들어진다.
+	 * ChunkedInLoader로 나눠서(2의 제곱수 길이로 채움) 조회한 뒤 합친다.
+	 * 병렬로 실행하면 청크마다 ChunkedInLoader가 연 세션을 쓰므로 em 대신 넘겨받은 session으로 조회한다.
+	 */
 	private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
-		List<OrderItemQueryDto> orderItems = em.createQuery(
-				"select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)"
-					+ " from OrderItem oi"
-					+ " join oi.item i"
-					+ " where oi.order.id in :orderIds", OrderItemQueryDto.class)
-			.setParameter("orderIds", orderIds)
-			.getResultList();
+		List<OrderItemQueryDto> orderItems = chunkedInLoader.load(orderIds, (session, chunk) -> session.createQuery(ORDER_ITEMS_IN_JPQL, OrderItemQueryDto.class)
+			.setParameter("orderIds", chunk)
+			.getResultList());
 
 		Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.stream()
 			.collect(groupingBy(orderItemQueryDto -> orderItemQueryDto.getOrderId()));
@@ -77,13 +107,64 @@ public class OrderQueryRepository {
 	}
 
 	public List<OrderFlatDto> findAllByDtoFlat() {
-		return em.createQuery(
-			"select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)"
-			+ " from Order o"
-			+ " join o.member m"
-			+ " join o.delivery d"
-			+ " join o.orderItems oi"
-			+ " join oi.item i", OrderFlatDto.class)
+		return em.createQuery(FLAT_JPQL, OrderFlatDto.class)
 			.getResultList();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * 전체 결과를 List로 만들지 않고 forward-only 커서로 한 줄씩 넘겨준다.
+	 * order_id 순으로 정렬되어 있어서 같은 주문의 상품은 연속으로 들어온다.
+	 * DTO는 영속성 컨텍스트에 올라가지 않으므로 중간에 비울 필요가 없다.
+	 */
+	public void streamAllByDtoFlat(int fetchSize, Consumer<OrderFlatDto> consumer) {
+		Session session = em.unwrap(Session.class);
+		try (ScrollableResults<OrderFlatDto> results = session.createQuery(FLAT_JPQL, OrderFlatDto.class)
+			.setFetchSize(fetchSize)
+			.setReadOnly(true)
+			.scroll(ScrollMode.FORWARD_ONLY)) {
+
+			while (results.next()) {
+				consumer.accept(results.get());
+			}
+		}
+	}
+
+	// ==StatelessSession 조회== //
+
+	/**
+	 * V5를 StatelessSession으로 조회
+	 * 영속성 컨텍스트(1차 캐시, 스냅샷, 플러시)를 만들지 않고 DTO만 만든다.
+	 * 스프링 트랜잭션에 참여하지 않고 자기 커넥션을 따로 쓰므로, 아직 커밋되지 않은 변경은 보이지 않는다.
+	 */
+	public List<OrderQueryDto> findAllByDtoOptimizationStateless() {
+		try (StatelessSession session = openStatelessSession()) {
+			List<OrderQueryDto> result = session.createQuery(ORDERS_JPQL, OrderQueryDto.class)
+				.getResultList();
+
+			// 세션이 스레드에 묶여 있으므로 청크는 순서대로 실행
+			Map<Long, List<OrderItemQueryDto>> orderItemMap = chunkedInLoader.loadSequentially(toOrderIds(result),
+					chunk -> session.createQuery(ORDER_ITEMS_IN_JPQL, OrderItemQueryDto.class)
+						.setParameter("orderIds", chunk)
+						.getResultList())
+				.stream()
+				.collect(groupingBy(OrderItemQueryDto::getOrderId));
+
+			result.forEach(o -> o.setOrderItems(orderItemMap.get(o.getOrderId())));
+			return result;
+		}
+	}
+
+	/**
+	 * V6를 StatelessSession으로 조회
+	 */
+	public List<OrderFlatDto> findAllByDtoFlatStateless() {
+		try (StatelessSession session = openStatelessSession()) {
+			return session.createQuery(FLAT_JPQL, OrderFlatDto.class)
+				.getResultList();
+		}
+	}
+
+	private StatelessSession openStatelessSession() {
+		return em.getEntityManagerFactory().unwrap(SessionFactory.class).openStatelessSession();
+	}
+}
@@ -0,0 +1,65 @@
+package jpabook.jpashop.repository.order.simplequery;
+
+import static jpabook.jpashop.domain.order.OrderStatus.CANCEL;
+
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import jpabook.jpashop.domain.order.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderSummaryRepository {
+
+	private final EntityManager em;
+
+	public void save(OrderSummary orderSummary) {
+		em.persist(orderSummary);
+	}
+
+	/**
+	 * 조인 없이 order_summary 한 테이블만 읽는다.
+	 */
+	public List<OrderSimpleQueryDto> findOrderDtos(int offset, int limit) {
+		return em.createQuery(
+			"select new jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto(s.orderId, s.memberName, s.orderDate, s.status, s.address)"
+			+ " from OrderSummary s"
+			+ " order by s.orderId", OrderSimpleQueryDto.class)
+			.setFirstResult(offset)
+			.setMaxResults(limit)
+			.getResultList();
+	}
+
+	public void cancel(Collection<Long> orderIds) {
+		em.createQuery("update OrderSummary s set s.status = :status where s.orderId in :orderIds")
+			.setParameter("status", CANCEL)
+			.setParameter("orderIds", orderIds)
+			.executeUpdate();
+	}
+
+	public void updateMemberName(Long memberId, String name) {
+		em.createQuery("update OrderSummary s set s.memberName = :name where s.memberId = :memberId")
+			.setParameter("name", name)
+			.setParameter("memberId", memberId)
+			.executeUpdate();
+	}
+
+	/**
+	 * 이벤트를 거치지 않고 들어간 주문(InitDb, 대량 적재)까지 포함해서 전체를 다시 만든다.
+	 */
+	public void rebuild() {
+		em.createQuery("delete from OrderSummary").executeUpdate();
+		em.createNativeQuery(
+			"insert into order_summary (order_id, member_id, member_name, order_date, status, city, street, zipcode)"
+			+ " select o.order_id, m.member_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode"
+			+ " from orders o"
+			+ " join member m on m.member_id = o.member_id"
+			+ " join delivery d on d.delivery_id = o.delivery_id")
+			.unwrap(NativeQuery.class)
+			.addSynchronizedEntityClass(OrderSummary.class)
+			.executeUpdate();
+	}
+}
@@ -0,0 +1,70 @@
+package jpabook.jpashop.service;
+
+import java.util.List;
+import jpabook.jpashop.domain.event.CategoryChangedEvent;
+import jpabook.jpashop.domain.item.Category;
+import jpabook.jpashop.domain.item.extend.Item;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.repository.category.CategoryNode;
+import jpabook.jpashop.repository.category.CategoryRepository;
+import jpabook.jpashop.repository.category.CategoryTreeCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final ItemRepository itemRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 최상위 카테고리 저장
+     */
+    @Transactional
+    public Long saveCategory(Category category) {
+        categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+        return category.getId();
+    }
+
+    /**
+     * 하위 카테고리 추가 (새 카테고리만, 기존 하위 트리 이동은 지원하지 않음)
+     */
+    @Transactional
+    public Long addChildCategory(Long parentId, Category child) {
+        Category parent = categoryRepository.findOne(parentId);
+        if (parent == null) {
+            throw new IllegalArgumentException("존재하지 않는 카테고리입니다. id=" + parentId);
+        }
+        parent.addChildCategory(child);
+        categoryRepository.save(child);
+        eventPublisher.publishEvent(new CategoryChangedEvent(child.getId()));
+        return child.getId();
+    }
+
+    @Transactional
+    public void addItem(Long categoryId, Long itemId) {
+        Category category = categoryRepository.findOne(categoryId);
+        category.getItems().add(itemRepository.findOne(itemId));
+    }
+
+    /**
+     * 카테고리 X 아래 모든 상품 (클로저 테이블로 쿼리 1번)
+     */
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        return categoryRepository.findItemsInSubtree(categoryId);
+    }
+
+    /**
+     * breadcrumb (스냅샷에서 조회, 쿼리 없음)
+     */
+    public List<CategoryNode> findAncestors(Long categoryId) {
+        return categoryTreeCache.get().ancestors(categoryId);
+    }
+}
@@ -0,0 +1,171 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 요청 본문을 한 줄(한 객체)씩 읽는 Iterator
+ * 전체를 메모리에 올리지 않고 MemberImportService가 청크만큼 꺼내 갈 때마다 읽는다.
+ * 줄 하나만 잘못된 경우 next()가 MalformedRowException을 던지고 다음 줄부터 계속 읽을 수 있다.
+ * 그 외 예외(I/O 오류, JSON 문법 오류)는 더 이상 읽을 수 없다는 뜻이다.
+ */
+public abstract class MemberImportReader {
+
+    private static final String HEADER_NAME = "name";
+
+    private MemberImportReader() {
+    }
+
+    /**
+     * JSON 배열([{...}, {...}]) 또는 NDJSON
+     * 타입이 맞지 않는 객체는 MappingIterator가 그 객체 끝까지 건너뛰므로 다음 객체부터 계속 읽는다.
+     * 본문 맨 앞의 문법 오류도 결과에 남도록 MappingIterator는 처음 읽을 때 만든다.
+     */
+    public static Iterator<MemberImportRow> json(ObjectMapper objectMapper, InputStream in) {
+        return new Iterator<>() {
+            private MappingIterator<MemberImportRow> rows;
+
+            private MappingIterator<MemberImportRow> rows() throws IOException {
+                if (rows == null) {
+                    rows = objectMapper.readerFor(MemberImportRow.class).readValues(in);
+                }
+                return rows;
+            }
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return rows().hasNextValue();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public MemberImportRow next() {
+                try {
+                    return rows().nextValue();
+                } catch (JsonMappingException e) {
+                    throw new MalformedRowException(e.getOriginalMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * CSV: name,city,street,zipcode (첫 줄의 첫 칸이 정확히 name이면 헤더로 보고 건너뜀, 큰따옴표 지원)
+     */
+    public static Iterator<MemberImportRow> csv(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new Iterator<>() {
+            private boolean first = true;
+            private boolean fetched;
+            private String next;
+
+            private String readLine() {
+                try {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                    } while (line != null && line.isBlank());
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            // 다음 줄은 hasNext()에서 읽는다 (next()에서 미리 읽으면 I/O 오류 때 방금 읽은 줄까지 잃음)
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    next = readLine();
+                    if (first && next != null && isHeader(next)) {
+                        next = readLine();
+                    }
+                    first = false;
+                    fetched = true;
+                }
+                return next != null;
+            }
+
+            @Override
+            public MemberImportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                List<String> columns = split(next);
+                return new MemberImportRow(column(columns, 0), column(columns, 1), column(columns, 2), column(columns, 3));
+            }
+        };
+    }
+
+    private static boolean isHeader(String line) {
+        // 엑셀에서 저장한 UTF-8 CSV는 BOM으로 시작한다
+        String first = line.startsWith("\uFEFF") ? line.substring(1) : line;
+        int end = first.indexOf(',');
+        return HEADER_NAME.equals((end < 0 ? first : first.substring(0, end)).trim());
+    }
+
+    private static String column(List<String> columns, int index) {
+        return index < columns.size() ? columns.get(index) : null;
+    }
+
+    private static List<String> split(String line) {
+        List<String> columns = new ArrayList<>(4);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new MalformedRowException("닫히지 않은 큰따옴표가 있습니다.");
+        }
+        columns.add(current.toString().trim());
+        return columns;
+    }
+
+    /**
+     * 이 줄(객체)만 읽지 못했고 다음 줄부터는 계속 읽을 수 있음
+     */
+    public static class MalformedRowException extends RuntimeException {
+
+        public MalformedRowException(String message) {
+            super(message);
+        }
+
+        public MalformedRowException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package jpabook.jpashop.service;
+
+import static lombok.AccessLevel.NONE;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+/**
+ * 회원 일괄 등록 결과
+ * 실패한 줄은 maxErrors개까지만 담고 나머지는 개수(failed)만 센다.
+ */
+@Getter
+public class MemberImportResult {
+
+    @Getter(NONE)
+    private final int maxErrors;
+    private long total;
+    private long imported;
+    private long failed;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public MemberImportResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void addRows(int rows) {
+        total += rows;
+    }
+
+    void addImported(int rows) {
+        imported += rows;
+    }
+
+    void addError(long row, String name, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, name, message));
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String name;
+        private String message;
+    }
+}
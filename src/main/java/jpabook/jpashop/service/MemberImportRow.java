@@ -0,0 +1,19 @@
+package jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 일괄 등록 요청의 한 줄 (CSV: name,city,street,zipcode / JSON: 같은 이름의 필드)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberImportRow {
+
+    private String name;
+    private String city;
+    private String street;
+    private String zipcode;
+}
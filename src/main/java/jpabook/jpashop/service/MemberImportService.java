@@ -0,0 +1,150 @@
+package jpabook.jpashop.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Address;
+import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.service.MemberImportReader.MalformedRowException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * 회원 일괄 등록
+ * 요청 본문을 CHUNK_SIZE 줄씩 읽어서 청크마다 트랜잭션 하나로 처리한다.
+ * 1. 청크 안에서 같은 이름 제거
+ * 2. 이미 있는 이름은 IN 쿼리 한 번으로 확인 (앞 청크에서 넣은 이름도 커밋되어 있으므로 여기서 걸러짐)
+ * 3. persist 후 flush해서 INSERT를 JDBC 배치로 보내고 영속성 컨텍스트를 비움
+ * 청크 사이에 다른 요청이 같은 이름으로 가입해서 uk_member_name에 걸리면 그 청크만 한 번 다시 처리한다.
+ * 실패한 청크는 롤백되고, 이전 청크는 이미 커밋되어 있다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberImportService {
+
+    static final int CHUNK_SIZE = 500; // hibernate.jdbc.batch_size의 배수
+    private static final int MAX_ERRORS = 1000;
+
+    private final MemberRepository memberRepository;
+    private final MemberNameFilter memberNameFilter;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 읽지 못한 줄도 실패로 기록하고, 본문을 더 읽을 수 없으면 거기까지 처리한 결과를 돌려준다.
+     */
+    public MemberImportResult importMembers(Iterator<MemberImportRow> rows) {
+        MemberImportResult result = new MemberImportResult(MAX_ERRORS);
+        long rowNumber = 0;
+        List<MemberImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (true) {
+            MemberImportRow row;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                row = rows.next();
+            } catch (MalformedRowException e) {
+                // 이 줄만 실패 처리하고 계속 (청크의 줄 번호가 이어지도록 앞 줄들을 먼저 저장)
+                flushChunk(chunk, rowNumber, result);
+                addUnreadableRow(++rowNumber, e.getMessage(), result);
+                continue;
+            } catch (RuntimeException e) {
+                // I/O 오류, JSON 문법 오류 -> 이후 줄은 읽을 수 없음
+                flushChunk(chunk, rowNumber, result);
+                addUnreadableRow(++rowNumber, "본문을 더 읽을 수 없습니다: " + e.getMessage(), result);
+                return result;
+            }
+
+            rowNumber++;
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                flushChunk(chunk, rowNumber, result);
+            }
+        }
+        flushChunk(chunk, rowNumber, result);
+        return result;
+    }
+
+    private void flushChunk(List<MemberImportRow> chunk, long lastRow, MemberImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        importChunk(chunk, lastRow - chunk.size() + 1, result);
+        chunk.clear();
+    }
+
+    private static void addUnreadableRow(long row, String message, MemberImportResult result) {
+        result.addRows(1);
+        result.addError(row, null, message);
+    }
+
+    private void importChunk(List<MemberImportRow> chunk, long firstRow, MemberImportResult result) {
+        result.addRows(chunk.size());
+        try {
+            insertChunk(chunk, firstRow, result);
+        } catch (DataIntegrityViolationException e) {
+            // 중복 확인과 INSERT 사이에 다른 트랜잭션이 같은 이름을 넣음 -> 다시 확인해서 처리
+            try {
+                insertChunk(chunk, firstRow, result);
+            } catch (DataIntegrityViolationException retryFailed) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    result.addError(firstRow + i, chunk.get(i).getName(), "동시에 등록된 회원과 충돌해서 저장하지 못했습니다.");
+                }
+            }
+        }
+    }
+
+    private void insertChunk(List<MemberImportRow> chunk, long firstRow, MemberImportResult result) {
+        List<String> names = transactionTemplate.execute(status -> {
+            List<Member> members = new ArrayList<>(chunk.size());
+            Set<String> seen = new HashSet<>();
+            for (MemberImportRow row : chunk) {
+                if (StringUtils.hasText(row.getName()) && seen.add(row.getName())) {
+                    members.add(toMember(row));
+                }
+            }
+
+            Set<String> existing = new HashSet<>(memberRepository.findExistingNames(seen));
+            List<String> inserted = new ArrayList<>(members.size());
+            for (Member member : members) {
+                if (!existing.contains(member.getName())) {
+                    memberRepository.save(member);
+                    inserted.add(member.getName());
+                }
+            }
+            memberRepository.flushAndClear();
+            return inserted;
+        });
+
+        // 커밋된 뒤에만 결과에 반영 (다시 처리하는 경우 중복 집계 방지)
+        Set<String> insertedNames = new HashSet<>(names);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String name = chunk.get(i).getName();
+            if (!StringUtils.hasText(name)) {
+                result.addError(firstRow + i, name, "이름은 필수입니다.");
+            } else if (!seen.add(name)) {
+                result.addError(firstRow + i, name, "요청 안에서 중복된 이름입니다.");
+            } else if (!insertedNames.contains(name)) {
+                result.addError(firstRow + i, name, "이미 존재하는 회원입니다.");
+            }
+        }
+        names.forEach(memberNameFilter::put);
+        result.addImported(names.size());
+    }
+
+    private static Member toMember(MemberImportRow row) {
+        Member member = new Member();
+        member.setName(row.getName());
+        if (row.getCity() != null || row.getStreet() != null || row.getZipcode() != null) {
+            member.setAddress(new Address(row.getCity(), row.getStreet(), row.getZipcode()));
+        }
+        return member;
+    }
+}
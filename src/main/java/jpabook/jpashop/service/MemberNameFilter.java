@@ -0,0 +1,90 @@
+package jpabook.jpashop.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 이름 존재 여부 블룸 필터
+ * false면 한 번도 저장된 적 없는 이름이라 중복 검사 SELECT를 생략할 수 있다. true는 "있을 수도 있음"이다.
+ * 시작 시 member 테이블에서 채우기 전(ready 전)에는 항상 true를 반환한다.
+ * 필터에 빠진 이름이 있어도(대량 적재 등) 최종 판단은 uk_member_name 제약조건이 한다.
+ */
+@Component
+public class MemberNameFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitSize;
+	private final int hashCount;
+	private volatile boolean ready;
+
+	public MemberNameFilter(MemberNameFilterProperties properties) {
+		long n = Math.max(1, properties.getExpectedNames());
+		double p = properties.getFalsePositiveRate();
+		long m = Math.max(64, (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2))));
+		this.bits = new AtomicLongArray(Math.toIntExact((m + 63) / 64));
+		this.bitSize = (long) bits.length() * 64;
+		this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+	}
+
+	public boolean mightContain(String name) {
+		if (!ready || name == null) {
+			return true;
+		}
+		long h1 = hash(name);
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = Math.floorMod(h1 + i * h2, bitSize);
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void put(String name) {
+		if (name == null) {
+			return;
+		}
+		long h1 = hash(name);
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = Math.floorMod(h1 + i * h2, bitSize);
+			int word = (int) (index >>> 6);
+			long mask = 1L << index;
+			long current;
+			while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+				// 다른 스레드가 같은 word를 바꿨으면 다시 시도
+			}
+		}
+	}
+
+	/**
+	 * 테이블에서 모든 이름을 넣은 뒤 호출
+	 */
+	public void markReady() {
+		ready = true;
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	// FNV-1a 64 + murmur3 finalizer
+	private static long hash(String name) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < name.length(); i++) {
+			h ^= name.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
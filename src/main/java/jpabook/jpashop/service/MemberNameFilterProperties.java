@@ -0,0 +1,19 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 회원 이름 블룸 필터 크기 (MemberNameFilter)
+ * 기본값(100만 건, 1%)이면 약 1.2MB
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.member-name-filter")
+public class MemberNameFilterProperties {
+
+	private long expectedNames = 1_000_000;
+
+	private double falsePositiveRate = 0.01;
+}
@@ -1,9 +1,19 @@
 package jpabook.jpashop.service;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import jpabook.jpashop.aop.OptimisticRetry;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.event.MemberNameChangedEvent;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.member.query.MemberQueryDto;
+import jpabook.jpashop.repository.member.query.MemberQueryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,40 +21,92 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class MemberService {
 
+    private static final int NAME_FETCH_SIZE = 1000;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final MemberRepository memberRepository;
+    private final MemberQueryRepository memberQueryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberNameFilter memberNameFilter;
 
     // 회원 가입
     @Transactional
     public Long join(Member member) {
-        // 중복 회원을 검증
-        validateDuplicateMember(member);
-        memberRepository.save(member);
+        // 필터에 없는 이름은 처음 보는 이름이므로 SELECT 없이 바로 INSERT
+        if (memberNameFilter.mightContain(member.getName())) {
+            validateDuplicateMember(member.getName());
+        }
+        try {
+            memberRepository.saveAndFlush(member);
+        } catch (DataIntegrityViolationException e) {
+            // 동시에 같은 이름으로 가입한 경우 uk_member_name 제약조건이 최후 방어
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        }
+        memberNameFilter.put(member.getName());
         return member.getId();
     }
 
-    private void validateDuplicateMember(Member member) {
+    private void validateDuplicateMember(String name) {
         // Exception
-        List<Member> findMembers = memberRepository.findByName(member.getName());
+        List<Member> findMembers = memberRepository.findByName(name);
         if (!findMembers.isEmpty()) {
-            // Member의 name에 unique 제약조건으로 최후 방어를 해야함
             throw new IllegalStateException("이미 존재하는 회원입니다.");
         }
     }
 
+    /**
+     * 시작 시 member 테이블의 이름으로 필터를 채운다.
+     * 채우는 중에 가입한 이름은 join에서 넣으므로 빠지지 않는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUpNameFilter() {
+        memberRepository.forEachName(NAME_FETCH_SIZE, memberNameFilter::put);
+        memberNameFilter.markReady();
+    }
+
     // 회원 전체 조회
     @Transactional(readOnly = true)
     public List<Member> findMembers() {
         return memberRepository.findAll();
     }
 
+    /**
+     * 회원 목록 (키셋 페이징, id/name만 조회)
+     */
+    @Transactional(readOnly = true)
+    public List<MemberQueryDto> findMemberPage(Long lastId, int limit) {
+        return memberQueryRepository.findPage(lastId, limit);
+    }
+
+    /**
+     * 회원 전체 내보내기 (커서로 한 명씩 consumer에 넘김)
+     */
+    @Transactional(readOnly = true)
+    public void exportMembers(Consumer<MemberQueryDto> consumer) {
+        memberQueryRepository.streamAll(EXPORT_FETCH_SIZE, consumer);
+    }
+
     @Transactional(readOnly = true)
     public Member findOne(Long memberId) {
         return memberRepository.findOne(memberId);
     }
 
+    @OptimisticRetry
     @Transactional
     public void update(Long id, String name) {
         Member member = memberRepository.findOne(id);
+        if (!Objects.equals(member.getName(), name) && memberNameFilter.mightContain(name)) {
+            validateDuplicateMember(name);
+        }
         member.setName(name);
+        try {
+            // 커밋 때가 아니라 여기서 uk_member_name 위반을 확인 (join과 같은 예외로)
+            memberRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        }
+        memberNameFilter.put(name);
+        eventPublisher.publishEvent(new MemberNameChangedEvent(id, name));
     }
 }
@@ -0,0 +1,29 @@
+package jpabook.jpashop.service;
+
+import java.util.function.Consumer;
+import jpabook.jpashop.repository.order.query.OrderFlatAggregator;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final OrderQueryRepository orderQueryRepository;
+
+    /**
+     * 주문 전체 내보내기
+     * 주문 하나의 상품이 모두 모이면 바로 consumer로 넘기기 때문에 메모리에는 주문 하나만 남는다.
+     */
+    public void exportOrders(Consumer<OrderQueryDto> consumer) {
+        OrderFlatAggregator aggregator = new OrderFlatAggregator(consumer);
+        orderQueryRepository.streamAllByDtoFlat(FETCH_SIZE, aggregator);
+        aggregator.finish();
+    }
+}
@@ -0,0 +1,49 @@
+package jpabook.jpashop.service;
+
+import java.util.List;
+import jpabook.jpashop.repository.order.query.OrderFlatDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문 DTO 조회 (V4 ~ V6)
+ * 읽기 전용 트랜잭션으로 실행한다. (Hibernate 세션 읽기 전용 + FlushMode.MANUAL, 복제본 라우팅)
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderQueryService {
+
+    private final OrderQueryRepository orderQueryRepository;
+
+    public List<OrderQueryDto> findOrderQueryDtos() {
+        return orderQueryRepository.findOrderQueryDtos();
+    }
+
+    public List<OrderQueryDto> findAllByDtoOptimization() {
+        return orderQueryRepository.findAllByDtoOptimization();
+    }
+
+    public List<OrderFlatDto> findAllByDtoFlat() {
+        return orderQueryRepository.findAllByDtoFlat();
+    }
+
+    /**
+     * StatelessSession은 자기 커넥션을 따로 쓰므로 트랜잭션(커넥션)을 잡지 않는다.
+     * 트랜잭션이 없어도 readOnly = true는 스레드에 읽기 전용으로 표시되므로
+     * 라우팅(jpashop.datasource.routing)을 켜면 다른 조회와 같이 복제본에서 읽는다. (쓰기 직후에는 ReplicationLagGuard에 따라 primary)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED, readOnly = true)
+    public List<OrderQueryDto> findAllByDtoOptimizationStateless() {
+        return orderQueryRepository.findAllByDtoOptimizationStateless();
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED, readOnly = true)
+    public List<OrderFlatDto> findAllByDtoFlatStateless() {
+        return orderQueryRepository.findAllByDtoFlatStateless();
+    }
+}
@@ -0,0 +1,38 @@
+package jpabook.jpashop.service;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대량 주문 요청 (주문 1건 = 회원 1명 + 주문상품 여러 개)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequest {
+
+    @NotNull
+    private Long memberId;
+
+    @Valid
+    @NotEmpty
+    private List<OrderLine> orderLines = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderLine {
+        @NotNull
+        private Long itemId;
+
+        @Positive
+        private int count;
+    }
+}
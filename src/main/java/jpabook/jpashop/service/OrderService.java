@@ -1,17 +1,36 @@
 package jpabook.jpashop.service;
 
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static jpabook.jpashop.domain.delivery.DeliveryStatus.COMP;
 import static jpabook.jpashop.domain.order.Order.createOrder;
-import static jpabook.jpashop.domain.order.OrderItem.createOrderItem;
+import static jpabook.jpashop.domain.order.OrderItem.createReservedOrderItem;
+import static jpabook.jpashop.domain.order.OrderStatus.ORDER;
 
+import jakarta.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import jpabook.jpashop.aop.OptimisticRetry;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.delivery.Delivery;
+import jpabook.jpashop.domain.delivery.DeliveryStatus;
+import jpabook.jpashop.domain.event.OrderCanceledEvent;
+import jpabook.jpashop.domain.event.OrderPlacedEvent;
 import jpabook.jpashop.domain.item.extend.Item;
 import jpabook.jpashop.domain.order.Order;
 import jpabook.jpashop.domain.order.OrderItem;
+import jpabook.jpashop.domain.order.OrderStatus;
+import jpabook.jpashop.exception.NotEnoughStockException;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
 import jpabook.jpashop.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,12 +39,17 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int BATCH_SIZE = 100;
+    private static final int CANCEL_BATCH_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Long order(Long memberId, Long itemId, int count) {
+        checkCount(count);
 
         // 엔티티 조회
         Member member = memberRepository.findOne(memberId);
@@ -35,25 +59,186 @@ public class OrderService {
         Delivery delivery = new Delivery();
         delivery.setAddress(member.getAddress());
 
+        // 재고 차감
+        removeStock(item, count);
+
         // 주문상품 생성
-        OrderItem orderItem = createOrderItem(item, item.getPrice(), count);
+        OrderItem orderItem = createReservedOrderItem(item, item.getPrice(), count);
 
         // 주문 생성
         Order order = createOrder(member, delivery, orderItem);
 
         // 주문 저장
         orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderPlacedEvent(List.of(order)));
 
         return order.getId();
     }
 
+    /**
+     * 대량 주문
+     * BATCH_SIZE(= hibernate.jdbc.batch_size) 단위로 회원/상품을 IN 쿼리로 한 번에 조회하고,
+     * 상품별 재고는 합계로 한 번만 차감한 뒤 flush 해서 INSERT를 JDBC 배치로 보낸다.
+     * 수량이 0 이하인 줄이 섞이면 같은 상품의 합계가 맞아떨어져 재고 검사를 통과하므로 먼저 전부 검증한다.
+     */
+    @Transactional
+    public List<Long> orders(List<OrderRequest> requests) {
+        requests.forEach(OrderService::checkRequest);
+
+        List<Long> orderIds = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += BATCH_SIZE) {
+            List<OrderRequest> chunk = requests.subList(from, Math.min(from + BATCH_SIZE, requests.size()));
+            List<Order> orders = orderChunk(chunk);
+            eventPublisher.publishEvent(new OrderPlacedEvent(orders));
+            orderRepository.flushAndClear();
+            orders.forEach(o -> orderIds.add(o.getId()));
+        }
+        return orderIds;
+    }
+
+    private List<Order> orderChunk(List<OrderRequest> chunk) {
+        Map<Long, Integer> countByItem = new TreeMap<>();
+        for (OrderRequest request : chunk) {
+            for (OrderRequest.OrderLine line : request.getOrderLines()) {
+                countByItem.merge(line.getItemId(), line.getCount(), Integer::sum);
+            }
+        }
+
+        // 엔티티 조회
+        Set<Long> memberIds = chunk.stream().map(OrderRequest::getMemberId).collect(toSet());
+        Map<Long, Member> members = memberRepository.findAllById(memberIds).stream()
+            .collect(toMap(Member::getId, identity()));
+        Map<Long, Item> items = itemRepository.findAllById(countByItem.keySet()).stream()
+            .collect(toMap(Item::getId, identity()));
+
+        // 재고 차감 (데드락을 피하려고 상품 id 순서로)
+        countByItem.forEach((itemId, count) -> {
+            if (!items.containsKey(itemId)) {
+                throw new IllegalArgumentException("존재하지 않는 상품입니다. id=" + itemId);
+            }
+            if (!itemRepository.removeStock(itemId, count)) {
+                throw new NotEnoughStockException("need more stock");
+            }
+        });
+
+        List<Order> orders = new ArrayList<>(chunk.size());
+        for (OrderRequest request : chunk) {
+            Member member = members.get(request.getMemberId());
+            if (member == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. id=" + request.getMemberId());
+            }
+
+            // 배송정보 생성
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+
+            // 주문상품 생성 (재고는 위에서 차감했고 엔티티는 변경하지 않음)
+            OrderItem[] orderItems = request.getOrderLines().stream()
+                .map(line -> {
+                    Item item = items.get(line.getItemId());
+                    return createReservedOrderItem(item, item.getPrice(), line.getCount());
+                })
+                .toArray(OrderItem[]::new);
+
+            Order order = createOrder(member, delivery, orderItems);
+            orderRepository.save(order);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static void checkRequest(OrderRequest request) {
+        if (request.getOrderLines() == null || request.getOrderLines().isEmpty()) {
+            throw new IllegalArgumentException("주문상품이 없습니다. memberId=" + request.getMemberId());
+        }
+        request.getOrderLines().forEach(line -> checkCount(line.getCount()));
+    }
+
+    private static void checkCount(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다. count=" + count);
+        }
+    }
+
+    /**
+     * 엔티티에서 읽고 빼고 쓰면(read-modify-write) 동시 주문 시 갱신이 유실되기 때문에
+     * 조건부 UPDATE 한 문장으로 차감하고, 영속성 컨텍스트의 엔티티는 DB 값으로 다시 맞춘다.
+     */
+    private void removeStock(Item item, int count) {
+        if (!itemRepository.removeStock(item.getId(), count)) {
+            throw new NotEnoughStockException("need more stock");
+        }
+        itemRepository.refresh(item);
+    }
+
     /**
      * 주문 취소
+     * 같은 상품의 주문/취소와 버전 충돌이 나면 새 트랜잭션으로 다시 시도한다.
      */
+    @OptimisticRetry
     @Transactional
     public void cancelOrder(Long orderId) {
         Order order = orderRepository.findOne(orderId);
         order.cancel();
+        eventPublisher.publishEvent(new OrderCanceledEvent(List.of(orderId)));
+    }
+
+    /**
+     * 주문 일괄 취소
+     * 주문마다 Order, Delivery, OrderItem, Item을 지연 로딩하고 변경 감지하는 대신
+     * CANCEL_BATCH_SIZE 단위로 (1) 배송 상태 검증 (2) 주문 상태 bulk UPDATE (3) 상품별 수량 합계 조회를 하고,
+     * 재고는 마지막에 상품별 합계로 한 번에 복구한다.
+     * 이미 취소된 주문은 건너뛰고, 배송완료된 주문이 하나라도 있으면 전체를 취소하지 않는다.
+     * bulk UPDATE는 영속성 컨텍스트를 거치지 않으므로 끝나면 영속성 컨텍스트를 비운다.
+     * @return 실제로 취소된 주문 수
+     */
+    @OptimisticRetry
+    @Transactional
+    public int cancelOrders(List<Long> orderIds) {
+        List<Long> ids = orderIds.stream().distinct().sorted().toList();
+        Map<Long, Integer> restoreByItem = new TreeMap<>();
+        int canceled = 0;
+
+        for (int from = 0; from < ids.size(); from += CANCEL_BATCH_SIZE) {
+            List<Long> targets = findCancelTargets(ids.subList(from, Math.min(from + CANCEL_BATCH_SIZE, ids.size())));
+            if (targets.isEmpty()) {
+                continue;
+            }
+
+            if (orderRepository.cancelAll(targets) != targets.size()) {
+                // 검증과 UPDATE 사이에 다른 트랜잭션이 먼저 취소함 -> 롤백 후 재시도
+                throw new OptimisticLockingFailureException("주문이 동시에 변경되었습니다.");
+            }
+            for (Tuple row : orderRepository.sumCountByItem(targets)) {
+                restoreByItem.merge(row.get("itemId", Long.class), row.get("count", Long.class).intValue(), Integer::sum);
+            }
+            eventPublisher.publishEvent(new OrderCanceledEvent(targets));
+            canceled += targets.size();
+        }
+
+        itemRepository.addStockAll(restoreByItem);
+        orderRepository.flushAndClear();
+        return canceled;
+    }
+
+    private List<Long> findCancelTargets(List<Long> orderIds) {
+        List<Tuple> statuses = orderRepository.findCancelStatuses(orderIds);
+        if (statuses.size() != orderIds.size()) {
+            Set<Long> found = statuses.stream().map(row -> row.get("id", Long.class)).collect(toSet());
+            Long missing = orderIds.stream().filter(id -> !found.contains(id)).findFirst().orElseThrow();
+            throw new IllegalArgumentException("존재하지 않는 주문입니다. id=" + missing);
+        }
+
+        List<Long> targets = new ArrayList<>(statuses.size());
+        for (Tuple row : statuses) {
+            if (row.get("deliveryStatus", DeliveryStatus.class) == COMP) {
+                throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다. id=" + row.get("id", Long.class));
+            }
+            if (row.get("status", OrderStatus.class) == ORDER) {
+                targets.add(row.get("id", Long.class));
+            }
+        }
+        return targets;
     }
 
     /**
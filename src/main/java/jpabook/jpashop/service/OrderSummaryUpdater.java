@@ -0,0 +1,35 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.event.MemberNameChangedEvent;
+import jpabook.jpashop.domain.event.OrderCanceledEvent;
+import jpabook.jpashop.domain.event.OrderPlacedEvent;
+import jpabook.jpashop.domain.order.OrderSummary;
+import jpabook.jpashop.repository.order.simplequery.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 주문 요약(order_summary)을 원본 변경과 같은 트랜잭션에서 갱신한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSummaryUpdater {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        event.getOrders().forEach(order -> orderSummaryRepository.save(OrderSummary.of(order)));
+    }
+
+    @EventListener
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        orderSummaryRepository.cancel(event.getOrderIds());
+    }
+
+    @EventListener
+    public void onMemberNameChanged(MemberNameChangedEvent event) {
+        orderSummaryRepository.updateMemberName(event.getMemberId(), event.getName());
+    }
+}
@@ -0,0 +1,132 @@
+package jpabook.jpashop.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import com.p6spy.engine.logging.Category;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import jpabook.jpashop.P6SpyFomatter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * 비동기 SQL 로그
+ * 요청 스레드: 파라미터 값이 들어간 SQL, 실행 시간, 커넥션 id만 링 버퍼에 넣는다. (포맷 없음)
+ * 백그라운드 스레드: 꺼내서 포맷하고 로그를 쓴다.
+ * P6Spy 자체 로그가 켜져 있으면 같은 SQL이 두 번 찍히므로 기동 시 실패시킨다.
+ */
+@Slf4j(topic = "p6spy")
+@Component
+@ConditionalOnProperty(prefix = "jpashop.sql-log", name = "mode", havingValue = "async")
+public class AsyncSqlLogger extends SimpleJdbcEventListener {
+
+	static final String P6SPY_LOGGING = "decorator.datasource.p6spy.enable-logging";
+
+	private final SqlLogProperties properties;
+	private final SqlLogRingBuffer<Entry> buffer;
+	private final long slowQueryThresholdNanos;
+	private final LongAdder dropped = new LongAdder();
+
+	private volatile boolean running;
+	private Thread writer;
+
+	public AsyncSqlLogger(SqlLogProperties properties, Environment environment) {
+		if (environment.getProperty(P6SPY_LOGGING, Boolean.class, true)) {
+			throw new IllegalStateException(
+				"jpashop.sql-log.mode=async는 P6Spy 로그와 같이 쓸 수 없습니다. " + P6SPY_LOGGING + "=false로 설정하세요.");
+		}
+		this.properties = properties;
+		this.buffer = new SqlLogRingBuffer<>(properties.getBufferSize());
+		this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowQueryThresholdMs());
+	}
+
+	@Override
+	public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+		boolean slow = timeElapsedNanos >= slowQueryThresholdNanos;
+		if (!slow && !sampled()) {
+			return;
+		}
+
+		// 파라미터 값은 P6Spy 로그와 같이 남긴다 (샘플링된 것만 문자열로 만들고, 포맷은 백그라운드에서)
+		Entry entry = new Entry(statementInformation.getConnectionInformation().getConnectionId(),
+			statementInformation.getSqlWithValues(), timeElapsedNanos, slow);
+		if (!buffer.offer(entry)) {
+			dropped.increment();
+		}
+	}
+
+	private boolean sampled() {
+		double sampleRate = properties.getSampleRate();
+		return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+	}
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		writer = new Thread(this::drainLoop, "async-sql-logger");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		LockSupport.unpark(writer);
+		writer.join(TimeUnit.SECONDS.toMillis(5));
+	}
+
+	private void drainLoop() {
+		while (running) {
+			if (!drain()) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+		}
+		drain();
+	}
+
+	private boolean drain() {
+		boolean drained = false;
+		Entry entry;
+		while ((entry = buffer.poll()) != null) {
+			drained = true;
+			write(entry);
+		}
+
+		long droppedCount = dropped.sumThenReset();
+		if (droppedCount > 0) {
+			log.warn("sql log buffer full, dropped {} entries (capacity={})", droppedCount, buffer.capacity());
+		}
+		return drained;
+	}
+
+	private void write(Entry entry) {
+		String sql = P6SpyFomatter.formatSql(Category.STATEMENT.getName(), entry.sql);
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(entry.elapsedNanos);
+		if (entry.slow) {
+			log.warn("[slow] | {} ms | connection {} | {}", elapsedMs, entry.connectionId, sql);
+		} else {
+			log.info("[statement] | {} ms | connection {} | {}", elapsedMs, entry.connectionId, sql);
+		}
+	}
+
+	private static final class Entry {
+		private final int connectionId;
+		private final String sql;
+		private final long elapsedNanos;
+		private final boolean slow;
+
+		private Entry(int connectionId, String sql, long elapsedNanos, boolean slow) {
+			this.connectionId = connectionId;
+			this.sql = sql;
+			this.elapsedNanos = elapsedNanos;
+			this.slow = slow;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package jpabook.jpashop.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * SQL 로그 설정
+ * mode=async면 요청 스레드는 링 버퍼에 넣기만 하고 포맷/출력은 백그라운드 스레드가 한다.
+ * (이때 P6Spy 자체 로그는 decorator.datasource.p6spy.enable-logging=false로 꺼야 한다, 켜져 있으면 기동 실패)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.sql-log")
+public class SqlLogProperties {
+
+	private Mode mode = Mode.SYNC;
+
+	// 링 버퍼 크기(2의 제곱수로 올림), 가득 차면 버리고 개수만 센다
+	private int bufferSize = 8192;
+
+	// 0.0 ~ 1.0, 느린 쿼리는 샘플링과 상관없이 항상 기록
+	private double sampleRate = 1.0;
+
+	private long slowQueryThresholdMs = 100;
+
+	public enum Mode {
+		SYNC, ASYNC
+	}
+}
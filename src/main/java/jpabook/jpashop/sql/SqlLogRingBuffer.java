@@ -0,0 +1,64 @@
+package jpabook.jpashop.sql;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 크기가 고정된 lock-free 링 버퍼 (여러 생산자, 소비자 1개)
+ * 슬롯마다 시퀀스 번호를 두고 CAS로 자리를 잡는다. 가득 차면 기다리지 않고 false를 반환한다.
+ */
+public class SqlLogRingBuffer<E> {
+
+	private final int mask;
+	private final AtomicReferenceArray<E> slots;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+	private long head; // 소비자 스레드만 사용
+
+	public SqlLogRingBuffer(int requestedCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+		this.mask = capacity - 1;
+		this.slots = new AtomicReferenceArray<>(capacity);
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	public boolean offer(E element) {
+		long pos = tail.get();
+		while (true) {
+			int index = (int) pos & mask;
+			long diff = sequences.get(index) - pos;
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					slots.lazySet(index, element);
+					sequences.set(index, pos + 1);
+					return true;
+				}
+				pos = tail.get();
+			} else if (diff < 0) {
+				return false;
+			} else {
+				pos = tail.get();
+			}
+		}
+	}
+
+	public E poll() {
+		int index = (int) head & mask;
+		if (sequences.get(index) - (head + 1) < 0) {
+			return null;
+		}
+		E element = slots.get(index);
+		slots.lazySet(index, null);
+		sequences.set(index, head + mask + 1);
+		head++;
+		return element;
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+}
@@ -0,0 +1,70 @@
+package jpabook.jpashop.sql;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청마다 SQL 통계를 시작하고, 끝나면 Micrometer 지표를 남기고 예산 초과를 경고한다.
+ * - jpashop.sql.statements: 요청당 SQL 수
+ * - jpashop.sql.time: 요청당 JDBC 실행 시간
+ * - jpashop.sql.max.repeat: 요청에서 가장 많이 반복된 SQL의 횟수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+	private final SqlStatementBudgetProperties properties;
+	private final MeterRegistry meterRegistry;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !properties.isEnabled();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+		throws ServletException, IOException {
+
+		SqlStatementStats stats = SqlStatementContext.start();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			SqlStatementContext.clear();
+			report(request, stats);
+		}
+	}
+
+	private void report(HttpServletRequest request, SqlStatementStats stats) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+		DistributionSummary.builder("jpashop.sql.statements").tag("uri", uri).register(meterRegistry)
+			.record(stats.getStatementCount());
+		Timer.builder("jpashop.sql.time").tag("uri", uri).register(meterRegistry)
+			.record(stats.getTotalNanos(), NANOSECONDS);
+		DistributionSummary.builder("jpashop.sql.max.repeat").tag("uri", uri).register(meterRegistry)
+			.record(stats.getMaxRepeatCount());
+
+		if (stats.getStatementCount() > properties.getMaxStatements()
+			|| stats.getMaxRepeatCount() > properties.getMaxRepeatedStatements()) {
+			meterRegistry.counter("jpashop.sql.budget.exceeded", "uri", uri).increment();
+			log.warn("sql budget exceeded: method={} uri={} statements={} maxStatements={} jdbcTimeMs={} maxRepeat={} maxRepeatedStatements={} repeatedSql=\"{}\"",
+				request.getMethod(), uri, stats.getStatementCount(), properties.getMaxStatements(), stats.getTotalMillis(),
+				stats.getMaxRepeatCount(), properties.getMaxRepeatedStatements(), stats.getMostRepeatedSql());
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package jpabook.jpashop.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import java.sql.SQLException;
+import jpabook.jpashop.exception.SqlStatementBudgetExceededException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * P6Spy 이벤트로 요청별 SQL 수, JDBC 시간, 같은 SQL 반복 횟수를 센다.
+ * failFast면 예산을 넘기는 SQL은 실행 전에 막는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementBudgetListener extends SimpleJdbcEventListener {
+
+	private final SqlStatementBudgetProperties properties;
+
+	@Override
+	public void onBeforeAnyExecute(StatementInformation statementInformation) {
+		SqlStatementStats stats = SqlStatementContext.current();
+		if (stats == null || !properties.isEnabled() || !properties.isFailFast()) {
+			return;
+		}
+
+		if (stats.getStatementCount() >= properties.getMaxStatements()) {
+			throw new SqlStatementBudgetExceededException(
+				"SQL 실행 예산 초과: " + properties.getMaxStatements() + "건");
+		}
+		String sql = statementInformation.getSql();
+		if (stats.repeatCount(sql) >= properties.getMaxRepeatedStatements()) {
+			throw new SqlStatementBudgetExceededException(
+				"같은 SQL 반복 실행(N + 1 의심): " + properties.getMaxRepeatedStatements() + "회 초과, sql=" + sql);
+		}
+	}
+
+	@Override
+	public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+		SqlStatementStats stats = SqlStatementContext.current();
+		if (stats != null) {
+			stats.record(statementInformation.getSql(), timeElapsedNanos);
+		}
+	}
+}
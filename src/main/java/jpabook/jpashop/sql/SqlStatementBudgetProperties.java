@@ -0,0 +1,25 @@
+package jpabook.jpashop.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * HTTP 요청 하나당 SQL 실행 예산
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.sql-budget")
+public class SqlStatementBudgetProperties {
+
+	private boolean enabled = true;
+
+	// 요청 하나에서 실행할 수 있는 최대 SQL 수
+	private int maxStatements = 100;
+
+	// 같은 SQL(파라미터 제외)을 반복 실행할 수 있는 최대 횟수, 넘으면 N + 1 의심
+	private int maxRepeatedStatements = 10;
+
+	// true면 예산을 넘는 순간 예외, false면 요청이 끝난 뒤 경고 로그만 남김
+	private boolean failFast = false;
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.sql;
+
+/**
+ * 현재 요청 스레드의 SQL 통계
+ * HTTP 요청 밖(InitDb 등)에서 실행되는 SQL은 집계하지 않는다.
+ */
+public abstract class SqlStatementContext {
+
+	private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+	public static SqlStatementStats start() {
+		SqlStatementStats stats = new SqlStatementStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	public static SqlStatementStats current() {
+		return CURRENT.get();
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+}
@@ -0,0 +1,34 @@
+package jpabook.jpashop.sql;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 응답 헤더로 SQL 수와 JDBC 시간을 내려준다. (X-Sql-Count, X-Sql-Time-Ms)
+ * 바디를 쓰기 직전 값이라 직렬화 중 지연 로딩(OSIV)으로 실행되는 SQL은 지표에만 포함된다.
+ */
+@RestControllerAdvice
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+		Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+
+		SqlStatementStats stats = SqlStatementContext.current();
+		if (stats != null) {
+			response.getHeaders().set("X-Sql-Count", String.valueOf(stats.getStatementCount()));
+			response.getHeaders().set("X-Sql-Time-Ms", String.valueOf(stats.getTotalMillis()));
+		}
+		return body;
+	}
+}
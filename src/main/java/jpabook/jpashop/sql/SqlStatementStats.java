@@ -0,0 +1,38 @@
+package jpabook.jpashop.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * 요청 하나에서 실행된 SQL 통계 (요청 스레드 하나에서만 사용)
+ */
+@Getter
+public class SqlStatementStats {
+
+	private int statementCount;
+	private long totalNanos;
+	private int maxRepeatCount;
+	private String mostRepeatedSql;
+
+	private final Map<String, Integer> countBySql = new HashMap<>();
+
+	public void record(String sql, long elapsedNanos) {
+		statementCount++;
+		totalNanos += elapsedNanos;
+
+		int repeat = countBySql.merge(sql, 1, Integer::sum);
+		if (repeat > maxRepeatCount) {
+			maxRepeatCount = repeat;
+			mostRepeatedSql = sql;
+		}
+	}
+
+	public int repeatCount(String sql) {
+		return countBySql.getOrDefault(sql, 0);
+	}
+
+	public long getTotalMillis() {
+		return totalNanos / 1_000_000;
+	}
+}
@@ -0,0 +1,125 @@
+package jpabook.jpashop.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberApiControllerTest {
+
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	EntityManager em;
+	@Autowired
+	MemberRepository memberRepository;
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Test
+	void 회원목록_키셋페이징() throws Exception {
+		// given: 시퀀스로 id를 받으므로 방금 저장한 세 명이 가장 큰 id
+		Member member1 = createMember("페이징회원1");
+		Member member2 = createMember("페이징회원2");
+		Member member3 = createMember("페이징회원3");
+		em.flush();
+
+		// when, then: 첫 페이지는 꽉 찼으므로 nextLastId가 있다
+		mockMvc.perform(get("/api/v3/members")
+				.param("lastId", String.valueOf(member1.getId() - 1))
+				.param("limit", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.data.length()").value(2))
+			.andExpect(jsonPath("$.data[0].memberId").value(member1.getId()))
+			.andExpect(jsonPath("$.data[0].name").value("페이징회원1"))
+			.andExpect(jsonPath("$.data[1].memberId").value(member2.getId()))
+			.andExpect(jsonPath("$.nextLastId").value(member2.getId()));
+
+		// 마지막 페이지는 nextLastId가 null
+		mockMvc.perform(get("/api/v3/members")
+				.param("lastId", String.valueOf(member2.getId()))
+				.param("limit", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.data.length()").value(1))
+			.andExpect(jsonPath("$.data[0].memberId").value(member3.getId()))
+			.andExpect(jsonPath("$.nextLastId").doesNotExist());
+	}
+
+	@Test
+	void 회원목록_limit_보정() throws Exception {
+		Member member = createMember("보정회원1");
+		createMember("보정회원2");
+		em.flush();
+
+		// 0, 음수는 1로 맞춤
+		for (String limit : List.of("0", "-5")) {
+			mockMvc.perform(get("/api/v3/members")
+					.param("lastId", String.valueOf(member.getId() - 1))
+					.param("limit", limit))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.length()").value(1))
+				.andExpect(jsonPath("$.nextLastId").value(member.getId()));
+		}
+	}
+
+	@Test
+	void 회원목록_V2_전체조회_유지() throws Exception {
+		createMember("V2회원");
+		em.flush();
+
+		mockMvc.perform(get("/api/v2/members"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.data.length()").value(memberRepository.findAll().size()))
+			.andExpect(jsonPath("$.nextLastId").doesNotExist());
+	}
+
+	@Test
+	void 회원_전체_내보내기() throws Exception {
+		createMember("내보내기회원1");
+		createMember("내보내기회원2");
+		em.flush();
+		int total = memberRepository.findAll().size();
+
+		String body = mockMvc.perform(get("/api/v3/members/export"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+			.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		// 한 줄에 회원 하나, member_id 순서
+		List<Long> ids = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			JsonNode node = objectMapper.readTree(line);
+			ids.add(node.get("memberId").asLong());
+			names.add(node.get("name").asText());
+		}
+		assertThat(ids).hasSize(total).isSorted();
+		assertThat(names).contains("내보내기회원1", "내보내기회원2");
+	}
+
+	private Member createMember(String name) {
+		Member member = new Member();
+		member.setName(name);
+		em.persist(member);
+		return member;
+	}
+}
@@ -0,0 +1,170 @@
+package jpabook.jpashop.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import jpabook.jpashop.jdbc.ReadWriteRoutingDataSource.Strategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * H2 인메모리 DB 두 개를 primary, 복제본 대신 사용
+ * 각 DB의 node 테이블에 자기 이름을 넣어 두고 어느 쪽에서 읽었는지 확인한다.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+	private final DataSource primary = node("primary");
+	private final DataSource replica = node("replica");
+
+	@Test
+	public void 읽기전용_트랜잭션은_복제본() throws Exception {
+		//given
+		Routing routing = new Routing(List.of(replica), 0);
+
+		//then
+		assertThat(routing.read()).isEqualTo("replica");
+		assertThat(routing.write()).isEqualTo("primary");
+	}
+
+	@Test
+	public void 라운드로빈() throws Exception {
+		//given
+		Routing routing = new Routing(List.of(replica, node("replica2")), 0);
+
+		//when
+		String first = routing.read();
+		String second = routing.read();
+
+		//then
+		assertThat(List.of(first, second)).containsExactlyInAnyOrder("replica", "replica2");
+	}
+
+	@Test
+	public void 복제본_장애시_primary() throws Exception {
+		//given
+		AtomicInteger attempts = new AtomicInteger();
+		DataSource down = new AbstractDataSource() {
+			@Override
+			public Connection getConnection() throws SQLException {
+				attempts.incrementAndGet();
+				throw new SQLException("replica down");
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return getConnection();
+			}
+		};
+		Routing routing = new Routing(List.of(down), 0);
+
+		//when
+		String first = routing.read();
+		String second = routing.read();
+
+		//then
+		assertThat(first).isEqualTo("primary");
+		assertThat(second).isEqualTo("primary");
+		assertThat(attempts.get()).as("장애 복제본은 retryAfter 동안 다시 시도하지 않는다").isEqualTo(1);
+	}
+
+	@Test
+	public void 쓰기_직후_읽기는_primary() throws Exception {
+		//given
+		Routing routing = new Routing(List.of(replica), 60_000);
+		assertThat(routing.read()).isEqualTo("replica");
+
+		//when
+		routing.write();
+
+		//then
+		assertThat(routing.read()).isEqualTo("primary");
+	}
+
+	@Test
+	public void 조회만_한_쓰기_트랜잭션은_복제본_읽기를_막지_않음() throws Exception {
+		//given
+		Routing routing = new Routing(List.of(replica), 60_000);
+
+		//when
+		String readInTx = routing.readInTx();
+
+		//then
+		assertThat(readInTx).isEqualTo("primary");
+		assertThat(routing.read()).isEqualTo("replica");
+	}
+
+	@Test
+	public void 트랜잭션_없는_읽기전용_조회도_복제본() throws Exception {
+		//given (OrderQueryService의 StatelessSession 조회와 같은 설정)
+		Routing routing = new Routing(List.of(replica), 0);
+
+		//then
+		assertThat(routing.readWithoutTx()).isEqualTo("replica");
+	}
+
+	@Test
+	public void 쓰기_SQL_판단() {
+		assertThat(ReadWriteRoutingDataSource.isWrite("/* comment */ select 1")).isFalse();
+		assertThat(ReadWriteRoutingDataSource.isWrite(" with t as (select 1) select * from t")).isFalse();
+		assertThat(ReadWriteRoutingDataSource.isWrite("update node set name = ?")).isTrue();
+		assertThat(ReadWriteRoutingDataSource.isWrite("insert into node values (?)")).isTrue();
+	}
+
+	private static DataSource node(String name) {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table node (name varchar(20))");
+		jdbcTemplate.update("insert into node values (?)", name);
+		return dataSource;
+	}
+
+	private class Routing {
+
+		private final JdbcTemplate jdbcTemplate;
+		private final TransactionTemplate readOnlyTx;
+		private final TransactionTemplate tx;
+		private final DataSourceTransactionManager transactionManager;
+
+		Routing(List<DataSource> replicas, long lagGuardMs) {
+			DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+				primary, replicas, Strategy.ROUND_ROBIN, new ReplicationLagGuard(lagGuardMs), 60_000));
+			transactionManager = new DataSourceTransactionManager(dataSource);
+			jdbcTemplate = new JdbcTemplate(dataSource);
+			readOnlyTx = new TransactionTemplate(transactionManager);
+			readOnlyTx.setReadOnly(true);
+			tx = new TransactionTemplate(transactionManager);
+		}
+
+		String read() {
+			return readOnlyTx.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+		}
+
+		String readWithoutTx() {
+			TransactionTemplate notSupported = new TransactionTemplate(transactionManager);
+			notSupported.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+			notSupported.setReadOnly(true);
+			return notSupported.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+		}
+
+		String readInTx() {
+			return tx.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+		}
+
+		String write() {
+			return tx.execute(status -> {
+				jdbcTemplate.update("update node set name = name");
+				return jdbcTemplate.queryForObject("select name from node", String.class);
+			});
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package jpabook.jpashop.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Address;
+import jpabook.jpashop.domain.item.extend.Book;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderRequest;
+import jpabook.jpashop.service.OrderRequest.OrderLine;
+import jpabook.jpashop.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * /api/v5/orders 부하 테스트 (./gradlew loadTest)
+ * 플랫폼 스레드 모드와 가상 스레드 모드(+ JDBC 동시 실행 제한)로 애플리케이션을 차례로 띄우고
+ * 같은 데이터, 같은 부하(동시 요청 CONCURRENCY개로 REQUESTS번)에서 지연시간 백분위수를 비교한다.
+ */
+@Slf4j
+@Tag("load")
+class OrderLoadTest {
+
+	private static final int ORDERS = 1_000;
+	private static final int WARMUP_REQUESTS = 500;
+	private static final int REQUESTS = 2_000;
+	private static final int CONCURRENCY = 200;
+
+	@Test
+	void ordersV5_플랫폼_스레드와_가상_스레드_p99_비교() throws Exception {
+		// when
+		Latency platform = measure("platform");
+		Latency virtual = measure("virtual",
+			"--spring.threads.virtual.enabled=true",
+			"--jpashop.jdbc.concurrency-limit.enabled=true");
+
+		// then
+		log.info("[load] p99 platform={}ms virtual={}ms (virtual/platform={})",
+			platform.millis(0.99), virtual.millis(0.99), String.format("%.2f", virtual.p99() / (double) platform.p99()));
+		assertThat(virtual.p99())
+			.as("가상 스레드 모드의 p99가 플랫폼 스레드 모드보다 나빠지지 않아야 한다")
+			.isLessThanOrEqualTo(platform.p99());
+	}
+
+	private Latency measure(String mode, String... properties) throws Exception {
+		List<String> args = new ArrayList<>(List.of(
+			"--server.port=0",
+			"--spring.datasource.url=jdbc:h2:mem:load-" + mode));
+		args.addAll(List.of(properties));
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JpashopApplication.class)
+			.run(args.toArray(String[]::new))) {
+			seed(context);
+
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v5/orders")).build();
+
+			// JIT, 커넥션 풀 준비가 먼저 실행한 모드에만 불리하지 않도록 모드마다 먼저 호출해 둔다
+			send(request, WARMUP_REQUESTS);
+			Latency latency = send(request, REQUESTS);
+			log.info("[load] mode={} requests={} concurrency={} p50={}ms p99={}ms max={}ms",
+				mode, REQUESTS, CONCURRENCY, latency.millis(0.50), latency.millis(0.99), latency.millis(1.0));
+			return latency;
+		}
+	}
+
+	private static void seed(ConfigurableApplicationContext context) {
+		Member member = new Member();
+		member.setName("load");
+		member.setAddress(new Address("서울", "강남", "12345"));
+		context.getBean(MemberService.class).join(member);
+
+		Book book = new Book();
+		book.setName("load-book");
+		book.setPrice(10000);
+		book.setStockQuantity(Integer.MAX_VALUE / 2);
+		context.getBean(ItemService.class).saveItem(book);
+
+		List<OrderRequest> requests = new ArrayList<>();
+		for (int i = 0; i < ORDERS; i++) {
+			requests.add(new OrderRequest(member.getId(), List.of(new OrderLine(book.getId(), 1))));
+		}
+		context.getBean(OrderService.class).orders(requests);
+	}
+
+	private static Latency send(HttpRequest request, int count) throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+
+		// 클라이언트가 병목이 되지 않도록 요청마다 가상 스레드 하나, 동시 요청 수는 세마포어로 고정
+		Semaphore inFlight = new Semaphore(CONCURRENCY);
+		long[] latencies = new long[count];
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				int index = i;
+				results.add(executor.submit(() -> {
+					inFlight.acquire();
+					try {
+						long start = System.nanoTime();
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						latencies[index] = System.nanoTime() - start;
+						return response.statusCode();
+					} finally {
+						inFlight.release();
+					}
+				}));
+			}
+			for (Future<Integer> result : results) {
+				assertThat(result.get()).isEqualTo(200);
+			}
+		}
+
+		Arrays.sort(latencies);
+		return new Latency(latencies);
+	}
+
+	private record Latency(long[] sorted) {
+
+		long percentile(double percentile) {
+			return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+		}
+
+		long p99() {
+			return percentile(0.99);
+		}
+
+		String millis(double percentile) {
+			return String.format("%.1f", percentile(percentile) / 1e6);
+		}
+	}
+}
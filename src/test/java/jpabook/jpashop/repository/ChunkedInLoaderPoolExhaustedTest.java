@@ -0,0 +1,40 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.service.OrderQueryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 커넥션 풀이 1개뿐이라 호출 트랜잭션이 커넥션을 쥐고 있으면 작업 스레드는 커넥션을 얻지 못한다.
+ * 작업이 커넥션을 기다리는 동안 호출 스레드가 모든 청크를 처리해서 바로 끝나야 한다. (획득 타임아웃까지 멈추지 않음)
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:chunked-in-pool",
+	"spring.datasource.hikari.maximum-pool-size=1",
+	"spring.datasource.hikari.connection-timeout=2000",
+	"jpashop.in-query.chunk-size=1",
+	"jpashop.in-query.parallelism=4"
+})
+class ChunkedInLoaderPoolExhaustedTest {
+
+	@Autowired
+	OrderQueryService orderQueryService;
+
+	@Test
+	@Timeout(value = 1500, unit = TimeUnit.MILLISECONDS)
+	void 풀이_가득_차도_호출_스레드가_모든_청크를_처리() {
+		// when
+		List<OrderQueryDto> orders = orderQueryService.findAllByDtoOptimization();
+
+		// then
+		assertThat(orders).hasSizeGreaterThan(1);
+		assertThat(orders).allSatisfy(order -> assertThat(order.getOrderItems()).isNotEmpty());
+	}
+}
@@ -0,0 +1,44 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import jpabook.jpashop.repository.order.query.OrderFlatAggregator;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.service.OrderQueryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 청크를 병렬로 실행할 때 (청크 1개씩, InitDb 주문 2건 -> 청크 2개)
+ * 작업마다 자기 StatelessSession으로 조회하므로 InitDb가 커밋한 데이터로 확인하고, 다른 테스트와 DB를 나눈다.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:chunked-in",
+	"jpashop.in-query.chunk-size=1",
+	"jpashop.in-query.parallelism=2"
+})
+class ChunkedInLoaderTest {
+
+	@Autowired
+	OrderQueryService orderQueryService;
+
+	@Test
+	void 병렬_청크_조회_결과는_한번에_조회한_것과_같음() {
+		// when
+		List<OrderQueryDto> parallel = orderQueryService.findAllByDtoOptimization();
+
+		// then
+		Map<Long, OrderQueryDto> expected = OrderFlatAggregator.aggregate(orderQueryService.findAllByDtoFlat()).stream()
+			.collect(Collectors.toMap(OrderQueryDto::getOrderId, Function.identity()));
+		assertThat(parallel).hasSizeGreaterThan(1).hasSize(expected.size());
+		for (OrderQueryDto order : parallel) {
+			assertThat(order.getOrderItems())
+				.containsExactlyInAnyOrderElementsOf(expected.get(order.getOrderId()).getOrderItems());
+		}
+	}
+}
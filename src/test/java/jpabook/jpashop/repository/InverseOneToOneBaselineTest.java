@@ -0,0 +1,128 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+/**
+ * 바이트코드 향상 전 기준선
+ * 향상 플러그인은 main 소스만 처리하므로 테스트에 둔 엔티티는 향상되지 않는다.
+ * Order - Delivery와 같은 모양의 양방향 일대일을 baseline-orm.xml로 매핑하고 Hibernate 통계로 SQL 수를 센다.
+ * 향상된 Delivery의 같은 조회는 OrderReadStatementCountTest에서 확인한다.
+ */
+class InverseOneToOneBaselineTest {
+
+	private static final int ORDERS = 3;
+
+	private static LocalContainerEntityManagerFactoryBean factoryBean;
+	private static EntityManagerFactory emf;
+
+	@BeforeAll
+	static void setUp() {
+		factoryBean = new LocalContainerEntityManagerFactoryBean();
+		factoryBean.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:one-to-one-baseline;DB_CLOSE_DELAY=-1", "sa", ""));
+		factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factoryBean.setMappingResources("baseline-orm.xml");
+		// 2차 캐시를 끄지 않으면 hibernate-jcache의 기본 CacheManager를 다른 테스트 컨텍스트와 같이 쓰다가 destroy()에서 닫는다
+		factoryBean.setJpaPropertyMap(Map.of(
+				"hibernate.hbm2ddl.auto", "create-drop",
+				"hibernate.generate_statistics", "true",
+				"hibernate.cache.use_second_level_cache", "false"));
+		factoryBean.afterPropertiesSet();
+		emf = factoryBean.getObject();
+
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		for (long i = 1; i <= ORDERS; i++) {
+			BaselineDelivery delivery = new BaselineDelivery(i);
+			BaselineOrder order = new BaselineOrder(i, delivery);
+			delivery.order = order;
+			em.persist(delivery);
+			em.persist(order);
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@AfterAll
+	static void tearDown() {
+		factoryBean.destroy();
+	}
+
+	@Test
+	void 향상전_배송_조회시_주문까지_읽음() {
+		// when
+		BaselineDelivery delivery = count(em -> em.find(BaselineDelivery.class, 1L), 2);
+
+		// then: 향상된 Delivery는 1 (OrderReadStatementCountTest.배송_조회시_주문을_읽지_않음)
+		assertThat(Hibernate.isInitialized(delivery.order)).isTrue();
+	}
+
+	@Test
+	void 향상전_배송_목록_조회시_N_더하기_1() {
+		// when: 향상된 Delivery는 1 (OrderReadStatementCountTest.배송_목록_조회시_주문을_읽지_않음)
+		List<BaselineDelivery> deliveries = count(em -> em.createQuery("select d from BaselineDelivery d", BaselineDelivery.class)
+				.getResultList(), 1 + ORDERS);
+
+		// then
+		assertThat(deliveries).hasSize(ORDERS);
+	}
+
+	@Test
+	void 향상전_엔티티는_변경을_직접_기록하지_않음() {
+		// 향상된 Delivery는 SelfDirtinessTracker (OrderReadStatementCountTest.변경한_필드를_엔티티가_직접_기록)
+		assertThat(new BaselineDelivery(1L)).isNotInstanceOf(SelfDirtinessTracker.class);
+	}
+
+	private <T> T count(Function<EntityManager, T> query, int expected) {
+		Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		EntityManager em = emf.createEntityManager();
+		try {
+			statistics.clear();
+			T result = query.apply(em);
+			assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+			return result;
+		} finally {
+			em.close();
+		}
+	}
+
+	static class BaselineOrder {
+		Long id;
+		BaselineDelivery delivery;
+
+		protected BaselineOrder() {
+		}
+
+		BaselineOrder(Long id, BaselineDelivery delivery) {
+			this.id = id;
+			this.delivery = delivery;
+		}
+	}
+
+	static class BaselineDelivery {
+		Long id;
+		BaselineOrder order;
+
+		protected BaselineDelivery() {
+		}
+
+		BaselineDelivery(Long id) {
+			this.id = id;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Address;
+import jpabook.jpashop.domain.item.extend.Book;
+import jpabook.jpashop.domain.item.extend.Item;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 주문(재고 차감)이 item 2차 캐시를 얼마나 비우는지
+ * 테스트 설정은 2차 캐시를 쓰지 않으므로 application.yml의 캐시 설정을 여기서 켜고, 다른 테스트와 DB를 나눈다.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:item-cache",
+	"spring.jpa.properties.hibernate.generate_statistics=true",
+	"spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+	"spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+	"spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+	"spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
+class ItemCacheTest {
+
+	@Autowired
+	EntityManagerFactory emf;
+	@Autowired
+	ItemService itemService;
+	@Autowired
+	MemberService memberService;
+	@Autowired
+	OrderService orderService;
+
+	@Test
+	void 주문해도_다른_상품의_캐시는_유지() {
+		// given
+		Member member = new Member();
+		member.setName("캐시회원");
+		member.setAddress(new Address("서울", "경기", "123-123"));
+		memberService.join(member);
+
+		Book ordered = createBook("주문할상품");
+		Book other = createBook("다른상품");
+		itemService.findOne(ordered.getId());
+		itemService.findOne(other.getId());
+
+		Cache cache = emf.getCache();
+		assertThat(cache.contains(Item.class, ordered.getId())).isTrue();
+		assertThat(cache.contains(Item.class, other.getId())).isTrue();
+
+		// when
+		orderService.order(member.getId(), ordered.getId(), 1);
+
+		// then: 재고가 바뀐 상품만 캐시에서 빠진다 (JPQL bulk UPDATE였을 때는 item 영역 전체가 비워짐)
+		assertThat(cache.contains(Item.class, ordered.getId())).isFalse();
+		assertThat(cache.contains(Item.class, other.getId())).isTrue();
+
+		long hits = itemStatistics().getHitCount();
+		itemService.findOne(other.getId());
+		assertThat(itemStatistics().getHitCount()).isEqualTo(hits + 1);
+
+		// 빠진 상품은 DB에서 새 재고로 다시 읽는다
+		assertThat(itemService.findOne(ordered.getId()).getStockQuantity()).isEqualTo(9);
+	}
+
+	private Book createBook(String name) {
+		Book book = new Book();
+		book.setName(name);
+		book.setPrice(10000);
+		book.setStockQuantity(10);
+		itemService.saveItem(book);
+		return book;
+	}
+
+	private CacheRegionStatistics itemStatistics() {
+		return emf.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics("item");
+	}
+}
@@ -0,0 +1,137 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.delivery.Delivery;
+import jpabook.jpashop.domain.delivery.DeliveryStatus;
+import jpabook.jpashop.domain.item.Address;
+import jpabook.jpashop.domain.item.extend.Book;
+import jpabook.jpashop.domain.order.Order;
+import jpabook.jpashop.domain.order.OrderItem;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.sql.SqlStatementContext;
+import jpabook.jpashop.sql.SqlStatementStats;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문 조회 경로의 SQL 수 (P6Spy 리스너로 집계)
+ * 바이트코드 향상 전에는 Delivery를 읽을 때마다 연관관계 주인이 아닌 Delivery.order를 채우려고 SELECT가 하나 더 나갔다.
+ * 향상 전 수치는 InverseOneToOneBaselineTest에서 같은 모양의 향상되지 않은 엔티티로 검증한다.
+ */
+@SpringBootTest
+@Transactional
+class OrderReadStatementCountTest {
+
+	private static final int ORDERS = 3;
+
+	@Autowired
+	EntityManager em;
+	@Autowired
+	OrderRepository orderRepository;
+	@Autowired
+	OrderQueryRepository orderQueryRepository;
+
+	Long deliveryId;
+	List<Long> orderIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		Member member = new Member();
+		member.setName("회원1");
+		member.setAddress(new Address("서울", "경기", "123-123"));
+		em.persist(member);
+
+		Book book = new Book();
+		book.setName("시골 JPA");
+		book.setPrice(10000);
+		book.setStockQuantity(100);
+		em.persist(book);
+
+		for (int i = 0; i < ORDERS; i++) {
+			Delivery delivery = new Delivery();
+			delivery.setAddress(member.getAddress());
+			Order order = Order.createOrder(member, delivery, OrderItem.createReservedOrderItem(book, 10000, 1));
+			em.persist(order);
+			orderIds.add(order.getId());
+			deliveryId = delivery.getId();
+		}
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void 배송_조회시_주문을_읽지_않음() {
+		// when
+		Delivery delivery = count(() -> em.find(Delivery.class, deliveryId), 1);
+
+		// then: 향상 전 2 (delivery + orders)
+		assertThat(Hibernate.isPropertyInitialized(delivery, "order")).isFalse();
+	}
+
+	@Test
+	void 배송_목록_조회시_주문을_읽지_않음() {
+		// when: 향상 전 1 + N
+		List<Delivery> deliveries = count(() -> em.createQuery("select d from Delivery d", Delivery.class).getResultList(), 1);
+
+		// then
+		assertThat(deliveries).allMatch(d -> !Hibernate.isPropertyInitialized(d, "order"));
+	}
+
+	@Test
+	void V3_페치조인() {
+		List<Order> orders = count(() -> orderRepository.findAllWithItem(), 1);
+		assertThat(orders).extracting(Order::getId).containsAll(orderIds);
+	}
+
+	@Test
+	void V3_1_회원_배송_페치조인() {
+		List<Order> orders = count(() -> orderRepository.findAllWithMemberDelivery(0, 100), 1);
+		assertThat(orders).extracting(Order::getId).containsAll(orderIds);
+	}
+
+	@Test
+	void V5_DTO_IN_조회() {
+		count(() -> orderQueryRepository.findAllByDtoOptimization(), 2);
+	}
+
+	@Test
+	void 변경한_필드를_엔티티가_직접_기록() {
+		// given: 향상 전에는 SelfDirtinessTracker가 아니라 flush 때 스냅샷과 비교 (InverseOneToOneBaselineTest)
+		Delivery delivery = em.find(Delivery.class, deliveryId);
+		assertThat(delivery).isInstanceOf(SelfDirtinessTracker.class);
+		SelfDirtinessTracker tracker = (SelfDirtinessTracker) delivery;
+		assertThat(tracker.$$_hibernate_hasDirtyAttributes()).isFalse();
+
+		// when
+		delivery.setStatus(DeliveryStatus.COMP);
+
+		// then
+		assertThat(tracker.$$_hibernate_getDirtyAttributes()).containsExactly("status");
+		count(() -> {
+			em.flush();
+			return null;
+		}, 1);
+	}
+
+	private <T> T count(Supplier<T> query, int expected) {
+		SqlStatementStats stats = SqlStatementContext.start();
+		try {
+			T result = query.get();
+			assertThat(stats.getStatementCount()).isEqualTo(expected);
+			return result;
+		} finally {
+			SqlStatementContext.clear();
+		}
+	}
+}
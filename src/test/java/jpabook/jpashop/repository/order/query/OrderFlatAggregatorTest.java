@@ -0,0 +1,79 @@
+package jpabook.jpashop.repository.order.query;
+
+import static jpabook.jpashop.domain.order.OrderStatus.ORDER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import jpabook.jpashop.domain.item.Address;
+import org.junit.jupiter.api.Test;
+
+class OrderFlatAggregatorTest {
+
+	private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Test
+	void 주문별로_상품을_묶음() {
+		//given
+		List<OrderFlatDto> flats = List.of(
+			flat(1L, "JPA1", 2),
+			flat(1L, "JPA2", 1),
+			flat(2L, "SPRING1", 3),
+			flat(5L, "SPRING2", 4),
+			flat(5L, "SPRING3", 5));
+
+		//when
+		List<OrderQueryDto> orders = OrderFlatAggregator.aggregate(flats);
+
+		//then: SQL 정렬 순서 유지
+		assertThat(orders).extracting(OrderQueryDto::getOrderId).containsExactly(1L, 2L, 5L);
+		assertThat(orders.get(0).getOrderItems()).extracting(OrderItemQueryDto::getItemName).containsExactly("JPA1", "JPA2");
+		assertThat(orders.get(1).getOrderItems()).extracting(OrderItemQueryDto::getCount).containsExactly(3);
+		assertThat(orders.get(2).getOrderItems()).extracting(OrderItemQueryDto::getItemName).containsExactly("SPRING2", "SPRING3");
+		assertThat(orders.get(0).getName()).isEqualTo("회원1");
+		assertThat(orders.get(0).getOrderStatus()).isEqualTo(ORDER);
+	}
+
+	@Test
+	void 빈_목록() {
+		assertThat(OrderFlatAggregator.aggregate(List.of())).isEmpty();
+	}
+
+	@Test
+	void 주문이_바뀔_때만_넘기고_마지막은_finish에서() {
+		//given
+		List<OrderQueryDto> emitted = new ArrayList<>();
+		OrderFlatAggregator aggregator = new OrderFlatAggregator(emitted::add);
+
+		//when, then
+		aggregator.accept(flat(1L, "JPA1", 1));
+		aggregator.accept(flat(1L, "JPA2", 1));
+		assertThat(emitted).isEmpty();
+
+		aggregator.accept(flat(2L, "SPRING1", 1));
+		assertThat(emitted).extracting(OrderQueryDto::getOrderId).containsExactly(1L);
+
+		aggregator.finish();
+		assertThat(emitted).extracting(OrderQueryDto::getOrderId).containsExactly(1L, 2L);
+
+		aggregator.finish();
+		assertThat(emitted).hasSize(2);
+	}
+
+	@Test
+	void 정렬되지_않은_행은_예외() {
+		OrderFlatAggregator aggregator = new OrderFlatAggregator(order -> {
+		});
+		aggregator.accept(flat(2L, "SPRING1", 1));
+
+		assertThatThrownBy(() -> aggregator.accept(flat(1L, "JPA1", 1)))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	private OrderFlatDto flat(Long orderId, String itemName, int count) {
+		return new OrderFlatDto(orderId, "회원" + orderId, ORDER_DATE, ORDER, new Address("서울", "경기", "123-123"),
+			itemName, 10000, count);
+	}
+}
@@ -0,0 +1,116 @@
+package jpabook.jpashop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import jpabook.jpashop.domain.item.Category;
+import jpabook.jpashop.domain.item.extend.Book;
+import jpabook.jpashop.repository.category.CategoryNode;
+import jpabook.jpashop.repository.category.CategoryTreeCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class CategoryServiceTest {
+
+	@Autowired
+	EntityManager em;
+	@Autowired
+	CategoryService categoryService;
+	@Autowired
+	CategoryTreeCache categoryTreeCache;
+
+	@Test
+	void 하위카테고리_상품_전체조회() {
+		// given
+		Long rootId = categoryService.saveCategory(createCategory("도서"));
+		Long childId = categoryService.addChildCategory(rootId, createCategory("IT"));
+		Long grandChildId = categoryService.addChildCategory(childId, createCategory("JPA"));
+
+		Book book1 = createBook("IT 입문");
+		Book book2 = createBook("JPA 프로그래밍");
+		categoryService.addItem(childId, book1.getId());
+		categoryService.addItem(grandChildId, book2.getId());
+		em.flush();
+		em.clear();
+
+		// when, then
+		assertThat(categoryService.findItemsInSubtree(rootId)).extracting("name")
+			.containsExactlyInAnyOrder("IT 입문", "JPA 프로그래밍");
+		assertThat(categoryService.findItemsInSubtree(grandChildId)).extracting("name")
+			.containsExactly("JPA 프로그래밍");
+	}
+
+	@Test
+	void breadcrumb() {
+		// given
+		Long rootId = categoryService.saveCategory(createCategory("음반"));
+		Long childId = categoryService.addChildCategory(rootId, createCategory("재즈"));
+		Long grandChildId = categoryService.addChildCategory(childId, createCategory("비밥"));
+		em.flush();
+
+		// 테스트 트랜잭션은 커밋되지 않으므로 직접 스냅샷을 만든다
+		categoryTreeCache.rebuild();
+
+		// when, then
+		assertThat(categoryService.findAncestors(grandChildId)).extracting(CategoryNode::getName)
+			.containsExactly("음반", "재즈", "비밥");
+	}
+
+	@Test
+	void 없는_부모에_추가_예외() {
+		assertThatThrownBy(() -> categoryService.addChildCategory(-1L, createCategory("IT")))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void 저장된_카테고리_이동_예외() {
+		// given
+		Long rootId = categoryService.saveCategory(createCategory("도서"));
+		Long otherId = categoryService.saveCategory(createCategory("음반"));
+		Category other = em.find(Category.class, otherId);
+
+		// when, then
+		assertThatThrownBy(() -> em.find(Category.class, rootId).addChildCategory(other))
+			.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> categoryService.addChildCategory(rootId, other))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void 저장하면_클로저_행_추가() {
+		// given
+		Long rootId = categoryService.saveCategory(createCategory("도서"));
+		Long childId = categoryService.addChildCategory(rootId, createCategory("IT"));
+		em.flush();
+
+		// when
+		List<Long> ancestorIds = em.createQuery(
+				"select cc.ancestorId from CategoryClosure cc where cc.descendantId = :id order by cc.depth", Long.class)
+			.setParameter("id", childId)
+			.getResultList();
+
+		// then
+		assertThat(ancestorIds).containsExactly(childId, rootId);
+	}
+
+	private Category createCategory(String name) {
+		Category category = new Category();
+		category.setName(name);
+		return category;
+	}
+
+	private Book createBook(String name) {
+		Book book = new Book();
+		book.setName(name);
+		book.setPrice(10000);
+		book.setStockQuantity(10);
+		em.persist(book);
+		return book;
+	}
+}
@@ -0,0 +1,278 @@
+package jpabook.jpashop.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.support.PersistenceExceptionTranslationInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 청크마다 TransactionTemplate으로 커밋되는 것을 그대로 확인하려고 테스트 트랜잭션 없이 실행하고,
+ * 테스트가 끝나면 테스트 중에 생긴 회원을 지운다.
+ */
+@SpringBootTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MemberImportServiceTest {
+
+    @Autowired MemberImportService memberImportService;
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired EntityManager em;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberNameFilter memberNameFilter;
+    @Autowired ListableBeanFactory beanFactory;
+
+    private long lastMemberId;
+
+    @BeforeEach
+    void rememberLastMemberId() {
+        lastMemberId = em.createQuery("select coalesce(max(m.id), 0) from Member m", Long.class).getSingleResult();
+    }
+
+    @AfterEach
+    void deleteImportedMembers() {
+        transactionTemplate.executeWithoutResult(status ->
+            em.createQuery("delete from Member m where m.id > :id")
+              .setParameter("id", lastMemberId)
+              .executeUpdate());
+    }
+
+    @Test
+    void CSV_일괄등록() {
+        // given
+        Member existing = new Member();
+        existing.setName("기존회원");
+        memberService.join(existing);
+
+        String csv = """
+            name,city,street,zipcode
+            import1,서울,"강남, 1",11111
+            import2,부산,해운대,22222
+            import1,서울,강남,11111
+            기존회원,서울,강남,11111
+            ,서울,강남,11111
+            """;
+
+        // when
+        MemberImportResult result = memberImportService.importMembers(MemberImportReader.csv(new ByteArrayInputStream(csv.getBytes(UTF_8))));
+
+        // then
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(MemberImportResult.RowError::getRow).containsExactly(3L, 4L, 5L);
+        assertThat(memberRepository.findByName("import1").get(0).getAddress().getStreet()).isEqualTo("강남, 1");
+    }
+
+    @Test
+    void CSV_헤더없이_name으로_시작하는_이름() {
+        String csv = """
+            namely,서울,강남,11111
+            name2,부산,해운대,22222
+            """;
+
+        MemberImportResult result = memberImportService.importMembers(MemberImportReader.csv(new ByteArrayInputStream(csv.getBytes(UTF_8))));
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(memberRepository.findByName("namely")).hasSize(1);
+    }
+
+    @Test
+    void 청크마다_커밋_청크_사이_중복() {
+        // given: CHUNK_SIZE + 10줄, 마지막 줄은 첫 청크의 첫 이름
+        int rows = MemberImportService.CHUNK_SIZE + 10;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i < rows; i++) {
+            csv.append("chunk-").append(i).append(",서울,강남,11111\n");
+        }
+        csv.append("chunk-1,서울,강남,11111\n");
+
+        // 두 번째 청크의 첫 줄을 읽을 때 첫 청크가 이미 커밋되어 있는지 (다른 트랜잭션에서) 확인
+        Iterator<MemberImportRow> csvRows = MemberImportReader.csv(new ByteArrayInputStream(csv.toString().getBytes(UTF_8)));
+        AtomicLong committedBeforeSecondChunk = new AtomicLong(-1);
+        AtomicInteger read = new AtomicInteger();
+        Iterator<MemberImportRow> watched = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return csvRows.hasNext();
+            }
+
+            @Override
+            public MemberImportRow next() {
+                if (read.incrementAndGet() == MemberImportService.CHUNK_SIZE + 1) {
+                    committedBeforeSecondChunk.set(countMembersAfter(lastMemberId));
+                }
+                return csvRows.next();
+            }
+        };
+
+        // when
+        MemberImportResult result = memberImportService.importMembers(watched);
+
+        // then
+        assertThat(committedBeforeSecondChunk.get()).isEqualTo(MemberImportService.CHUNK_SIZE);
+        assertThat(result.getTotal()).isEqualTo(rows);
+        assertThat(result.getImported()).isEqualTo(rows - 1);
+        assertThat(result.getErrors()).extracting(MemberImportResult.RowError::getRow).containsExactly((long) rows);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("이미 존재하는 회원입니다.");
+        assertThat(countMembersAfter(lastMemberId)).isEqualTo(rows - 1);
+    }
+
+    @Test
+    void 중복확인_뒤_다른트랜잭션이_같은이름_등록하면_청크_재처리() {
+        // given: 첫 번째 중복 확인 직후 다른 트랜잭션이 race-2를 커밋 -> INSERT가 uk_member_name 위반
+        RacingMemberRepository racingRepository = new RacingMemberRepository(em, "race-2", requiresNew());
+        ProxyFactory proxyFactory = new ProxyFactory(racingRepository);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new PersistenceExceptionTranslationInterceptor(beanFactory));
+        MemberImportService service = new MemberImportService((MemberRepository) proxyFactory.getProxy(), memberNameFilter, transactionTemplate);
+
+        String csv = """
+            race-1,서울,강남,11111
+            race-2,서울,강남,11111
+            race-3,서울,강남,11111
+            """;
+
+        // when
+        MemberImportResult result = service.importMembers(MemberImportReader.csv(new ByteArrayInputStream(csv.getBytes(UTF_8))));
+
+        // then: 롤백 후 한 번 더 확인해서 race-2만 실패
+        assertThat(racingRepository.existingNameChecks).isEqualTo(2);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(MemberImportResult.RowError::getRow).containsExactly(2L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("이미 존재하는 회원입니다.");
+        assertThat(countMembersAfter(lastMemberId)).isEqualTo(3);
+    }
+
+    @Test
+    void 결과에_maxErrors_노출안함() throws Exception {
+        MemberImportResult result = memberImportService.importMembers(
+            MemberImportReader.csv(new ByteArrayInputStream(",서울,강남,11111\n".getBytes(UTF_8))));
+
+        assertThat(objectMapper.writeValueAsString(result)).doesNotContain("maxErrors");
+    }
+
+    @Test
+    void 잘못된_줄은_실패로_기록하고_계속() {
+        String ndjson = """
+            {"name":"json1"}
+            {"name":{"first":"json"}}
+            {"name":"json2"}
+            """;
+        String csv = """
+            csv1,서울,강남,11111
+            "csv-broken,서울,강남,11111
+            csv2,부산,해운대,22222
+            """;
+
+        MemberImportResult jsonResult = memberImportService.importMembers(MemberImportReader.json(objectMapper, new ByteArrayInputStream(ndjson.getBytes(UTF_8))));
+        MemberImportResult csvResult = memberImportService.importMembers(MemberImportReader.csv(new ByteArrayInputStream(csv.getBytes(UTF_8))));
+
+        assertThat(jsonResult.getTotal()).isEqualTo(3);
+        assertThat(jsonResult.getImported()).isEqualTo(2);
+        assertThat(jsonResult.getErrors()).extracting(MemberImportResult.RowError::getRow).containsExactly(2L);
+        assertThat(csvResult.getTotal()).isEqualTo(3);
+        assertThat(csvResult.getImported()).isEqualTo(2);
+        assertThat(csvResult.getErrors()).extracting(MemberImportResult.RowError::getRow).containsExactly(2L);
+    }
+
+    @Test
+    void 본문을_더_읽을_수_없으면_읽은_데까지_결과() {
+        // JSON 문법 오류
+        String ndjson = """
+            {"name":"json3"}
+            ]
+            {"name":"json4"}
+            """;
+        // CSV 두 줄 뒤에 I/O 오류
+        InputStream brokenCsv = new SequenceInputStream(
+            new ByteArrayInputStream("io1,서울,강남,11111\nio2,서울,강남,11111\n".getBytes(UTF_8)),
+            new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("connection reset");
+                }
+            });
+
+        MemberImportResult jsonResult = memberImportService.importMembers(MemberImportReader.json(objectMapper, new ByteArrayInputStream(ndjson.getBytes(UTF_8))));
+        MemberImportResult csvResult = memberImportService.importMembers(MemberImportReader.csv(brokenCsv));
+
+        assertThat(jsonResult.getImported()).isEqualTo(1);
+        assertThat(jsonResult.getErrors()).extracting(MemberImportResult.RowError::getRow).containsExactly(2L);
+        assertThat(jsonResult.getErrors().get(0).getMessage()).startsWith("본문을 더 읽을 수 없습니다");
+        assertThat(csvResult.getTotal()).isEqualTo(3);
+        assertThat(csvResult.getImported()).isEqualTo(2);
+        assertThat(csvResult.getErrors()).extracting(MemberImportResult.RowError::getRow).containsExactly(3L);
+        assertThat(memberRepository.findByName("io2")).hasSize(1);
+    }
+
+    private TransactionTemplate requiresNew() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private long countMembersAfter(long memberId) {
+        return em.createQuery("select count(m) from Member m where m.id > :id", Long.class)
+                 .setParameter("id", memberId)
+                 .getSingleResult();
+    }
+
+    /**
+     * 첫 번째 중복 확인이 끝난 직후 별도 트랜잭션으로 같은 이름의 회원을 커밋한다. (동시 가입 재현)
+     */
+    static class RacingMemberRepository extends MemberRepository {
+
+        private final EntityManager em;
+        private final String racingName;
+        private final TransactionTemplate requiresNew;
+        int existingNameChecks;
+
+        RacingMemberRepository(EntityManager em, String racingName, TransactionTemplate requiresNew) {
+            super(em);
+            this.em = em;
+            this.racingName = racingName;
+            this.requiresNew = requiresNew;
+        }
+
+        @Override
+        public List<String> findExistingNames(Collection<String> names) {
+            List<String> existing = super.findExistingNames(names);
+            if (existingNameChecks++ == 0) {
+                requiresNew.executeWithoutResult(status -> {
+                    Member member = new Member();
+                    member.setName(racingName);
+                    em.persist(member);
+                });
+            }
+            return existing;
+        }
+    }
+}
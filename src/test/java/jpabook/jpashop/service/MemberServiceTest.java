@@ -3,12 +3,20 @@ package jpabook.jpashop.service;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import jakarta.persistence.EntityManager;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @SpringBootTest
 @Transactional
@@ -16,6 +24,22 @@ class MemberServiceTest {
 
     @Autowired MemberService memberService;
     @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    // NOT_SUPPORTED 테스트가 커밋한 회원 이름 (같은 DB를 쓰는 다른 테스트에 남지 않도록 끝나면 지운다)
+    private String committedName;
+
+    @AfterEach
+    void deleteCommittedMembers() {
+        if (committedName == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+            em.createQuery("delete from Member m where m.name = :name")
+              .setParameter("name", committedName)
+              .executeUpdate());
+    }
 
     @Test
 //    @Rollback(false)
@@ -50,4 +74,76 @@ class MemberServiceTest {
 //        fail("예외가 발생해야 한다."); // 여기까지 오면 안된다.
     }
 
+    @Test
+    void 이미_있는_이름으로_변경_예외() {
+        // given
+        Member kim = new Member();
+        kim.setName("kim");
+        Member lee = new Member();
+        lee.setName("lee");
+        memberService.join(kim);
+        memberService.join(lee);
+
+        // when, then
+        assertThatThrownBy(() -> memberService.update(lee.getId(), "kim"))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void 필터에_없는_이름으로_변경_제약조건_예외() {
+        // given: 필터를 거치지 않고 저장된 이름 -> SELECT 없이 uk_member_name으로만 걸러짐
+        Member direct = new Member();
+        direct.setName("필터밖회원");
+        em.persist(direct);
+        em.flush();
+
+        Member lee = new Member();
+        lee.setName("lee");
+        memberService.join(lee);
+
+        // when, then
+        assertThatThrownBy(() -> memberService.update(lee.getId(), "필터밖회원"))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void 동시_같은이름_가입() throws Exception {
+        // given
+        committedName = "동시가입";
+        int threadCount = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger duplicate = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    Member member = new Member();
+                    member.setName(committedName);
+                    memberService.join(member);
+                    success.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    duplicate.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        // then: 검사를 동시에 통과해도 uk_member_name이 하나만 남긴다
+        assertEquals(1, success.get());
+        assertEquals(threadCount - 1, duplicate.get());
+        assertEquals(1, memberRepository.findByName("동시가입").size());
+    }
+
 }
\ No newline at end of file
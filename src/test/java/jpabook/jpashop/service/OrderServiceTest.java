@@ -1,11 +1,18 @@
 package jpabook.jpashop.service;
 
+import static jpabook.jpashop.domain.delivery.DeliveryStatus.COMP;
 import static jpabook.jpashop.domain.order.OrderStatus.CANCEL;
 import static jpabook.jpashop.domain.order.OrderStatus.ORDER;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.item.extend.Item;
 import jpabook.jpashop.domain.item.Address;
@@ -13,10 +20,14 @@ import jpabook.jpashop.domain.item.extend.Book;
 import jpabook.jpashop.domain.order.Order;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.OrderRequest.OrderLine;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @SpringBootTest
 @Transactional
@@ -28,6 +39,48 @@ class OrderServiceTest {
 	OrderService orderService;
 	@Autowired
 	OrderRepository orderRepository;
+	@Autowired
+	MemberService memberService;
+	@Autowired
+	ItemService itemService;
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	// NOT_SUPPORTED 테스트가 커밋한 회원, 상품 (같은 DB를 쓰는 다른 테스트에 남지 않도록 끝나면 지운다)
+	private final List<Long> committedMemberIds = new ArrayList<>();
+	private final List<Long> committedItemIds = new ArrayList<>();
+
+	@AfterEach
+	void deleteCommitted() {
+		if (committedMemberIds.isEmpty()) {
+			return;
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Long> deliveryIds = em.createQuery("select o.delivery.id from Order o where o.member.id in :memberIds", Long.class)
+				.setParameter("memberIds", committedMemberIds)
+				.getResultList();
+			em.createQuery("delete from OrderSummary s where s.memberId in :memberIds")
+				.setParameter("memberIds", committedMemberIds)
+				.executeUpdate();
+			em.createQuery("delete from OrderItem oi where oi.order.id in (select o.id from Order o where o.member.id in :memberIds)")
+				.setParameter("memberIds", committedMemberIds)
+				.executeUpdate();
+			em.createQuery("delete from Order o where o.member.id in :memberIds")
+				.setParameter("memberIds", committedMemberIds)
+				.executeUpdate();
+			if (!deliveryIds.isEmpty()) {
+				em.createQuery("delete from Delivery d where d.id in :deliveryIds")
+					.setParameter("deliveryIds", deliveryIds)
+					.executeUpdate();
+			}
+			em.createQuery("delete from Item i where i.id in :itemIds")
+				.setParameter("itemIds", committedItemIds)
+				.executeUpdate();
+			em.createQuery("delete from Member m where m.id in :memberIds")
+				.setParameter("memberIds", committedMemberIds)
+				.executeUpdate();
+		});
+	}
 
 	@Test
 	void 상품주문() {
@@ -88,6 +141,223 @@ class OrderServiceTest {
 //		assertThat();
 	}
 
+	@Test
+	void 일괄취소() {
+		// given
+		Member member = createMember();
+		Book book1 = createBook("시골 JPA", 10000, 10);
+		Book book2 = createBook("시골 스프링", 20000, 10);
+
+		Long orderId1 = orderService.order(member.getId(), book1.getId(), 2);
+		Long orderId2 = orderService.order(member.getId(), book1.getId(), 3);
+		Long orderId3 = orderService.order(member.getId(), book2.getId(), 4);
+		orderService.cancelOrder(orderId3);
+
+		// when: 이미 취소된 주문과 중복 id는 건너뜀
+		int canceled = orderService.cancelOrders(List.of(orderId1, orderId2, orderId3, orderId1));
+
+		// then
+		assertThat(canceled).isEqualTo(2);
+		assertThat(orderRepository.findOne(orderId1).getStatus()).isEqualTo(CANCEL);
+		assertThat(orderRepository.findOne(orderId2).getStatus()).isEqualTo(CANCEL);
+		assertThat(em.find(Book.class, book1.getId()).getStockQuantity()).isEqualTo(10);
+		assertThat(em.find(Book.class, book2.getId()).getStockQuantity()).isEqualTo(10);
+	}
+
+	@Test
+	void 일괄취소_배송완료_예외() {
+		// given
+		Member member = createMember();
+		Book book = createBook("시골 JPA", 10000, 10);
+
+		Long orderId1 = orderService.order(member.getId(), book.getId(), 2);
+		Long orderId2 = orderService.order(member.getId(), book.getId(), 3);
+		orderRepository.findOne(orderId2).getDelivery().setStatus(COMP);
+
+		// when
+		assertThatThrownBy(() -> orderService.cancelOrders(List.of(orderId1, orderId2)))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void 대량주문() {
+		// given
+		Member member = createMember();
+		Book book1 = createBook("시골JPA", 10000, 10);
+		Book book2 = createBook("시골SPRING", 20000, 10);
+
+		List<OrderRequest> requests = List.of(
+			new OrderRequest(member.getId(), List.of(new OrderLine(book1.getId(), 2))),
+			new OrderRequest(member.getId(), List.of(new OrderLine(book1.getId(), 3), new OrderLine(book2.getId(), 1))));
+
+		// when
+		List<Long> orderIds = orderService.orders(requests);
+
+		// then
+		assertThat(orderIds).hasSize(2);
+		assertThat(orderRepository.findOne(orderIds.get(1)).getTotalPrice()).isEqualTo(10000 * 3 + 20000);
+		assertThat(em.find(Book.class, book1.getId()).getStockQuantity()).isEqualTo(5);
+		assertThat(em.find(Book.class, book2.getId()).getStockQuantity()).isEqualTo(9);
+	}
+
+	@Test
+	void 대량주문_수량검증() {
+		// given
+		Member member = createMember();
+		Book book = createBook("시골JPA", 10000, 10);
+
+		// when: 같은 상품에 +5, -5 -> 합계 0으로 재고 검사를 통과하면 안 됨
+		List<OrderRequest> offsetting = List.of(
+			new OrderRequest(member.getId(), List.of(new OrderLine(book.getId(), 5), new OrderLine(book.getId(), -5))));
+		List<OrderRequest> zero = List.of(new OrderRequest(member.getId(), List.of(new OrderLine(book.getId(), 0))));
+		List<OrderRequest> empty = List.of(new OrderRequest(member.getId(), List.of()));
+
+		// then
+		assertThatThrownBy(() -> orderService.orders(offsetting)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> orderService.orders(zero)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> orderService.orders(empty)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> orderService.order(member.getId(), book.getId(), -5)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(em.find(Book.class, book.getId()).getStockQuantity()).isEqualTo(10);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void 동시주문_재고초과판매없음() throws Exception {
+		// given
+		Member member = new Member();
+		member.setName("동시주문회원");
+		member.setAddress(new Address("서울", "경기", "123-123"));
+		memberService.join(member);
+
+		Book book = new Book();
+		book.setName("한정판JPA");
+		book.setPrice(10000);
+		book.setStockQuantity(10);
+		itemService.saveItem(book);
+		committed(member, book);
+
+		int threadCount = 20;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch latch = new CountDownLatch(threadCount);
+		AtomicInteger success = new AtomicInteger();
+		AtomicInteger notEnoughStock = new AtomicInteger();
+
+		// when
+		for (int i = 0; i < threadCount; i++) {
+			executor.execute(() -> {
+				try {
+					orderService.order(member.getId(), book.getId(), 1);
+					success.incrementAndGet();
+				} catch (NotEnoughStockException e) {
+					notEnoughStock.incrementAndGet();
+				} finally {
+					latch.countDown();
+				}
+			});
+		}
+		latch.await();
+		executor.shutdown();
+
+		// then
+		assertThat(success.get()).isEqualTo(10);
+		assertThat(notEnoughStock.get()).isEqualTo(10);
+		assertThat(itemService.findOne(book.getId()).getStockQuantity()).isEqualTo(0);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void 동시취소_주문_재고정합성() throws Exception {
+		// given
+		Member member = new Member();
+		member.setName("동시취소회원");
+		member.setAddress(new Address("서울", "경기", "123-123"));
+		memberService.join(member);
+
+		Book book = new Book();
+		book.setName("인기JPA");
+		book.setPrice(10000);
+		book.setStockQuantity(100);
+		itemService.saveItem(book);
+		committed(member, book);
+
+		int threadCount = 10;
+		List<Long> orderIds = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			orderIds.add(orderService.order(member.getId(), book.getId(), 2));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount * 2);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threadCount * 2);
+		AtomicInteger failed = new AtomicInteger();
+
+		// when: 주문 10건 취소(+2씩)와 새 주문 10건(-1씩)을 같은 상품에 동시에
+		for (int i = 0; i < threadCount; i++) {
+			Long orderId = orderIds.get(i);
+			executor.execute(() -> run(start, done, failed, () -> orderService.cancelOrder(orderId)));
+			executor.execute(() -> run(start, done, failed, () -> orderService.order(member.getId(), book.getId(), 1)));
+		}
+		start.countDown();
+		done.await();
+		executor.shutdown();
+
+		// then
+		assertThat(failed.get()).isEqualTo(0);
+		assertThat(itemService.findOne(book.getId()).getStockQuantity()).isEqualTo(100 - 20 + 20 - 10);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void 같은회원_동시주문() throws Exception {
+		// given
+		Member member = new Member();
+		member.setName("같은회원동시주문");
+		member.setAddress(new Address("서울", "경기", "123-123"));
+		memberService.join(member);
+
+		Book book = new Book();
+		book.setName("재고많은JPA");
+		book.setPrice(10000);
+		book.setStockQuantity(100);
+		itemService.saveItem(book);
+		committed(member, book);
+
+		int threadCount = 10;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threadCount);
+		AtomicInteger failed = new AtomicInteger();
+
+		// when: 같은 회원이 동시에 주문 (주문 추가로 회원 버전이 올라가면 충돌)
+		for (int i = 0; i < threadCount; i++) {
+			executor.execute(() -> run(start, done, failed, () -> orderService.order(member.getId(), book.getId(), 1)));
+		}
+		start.countDown();
+		done.await();
+		executor.shutdown();
+
+		// then
+		assertThat(failed.get()).isEqualTo(0);
+		assertThat(itemService.findOne(book.getId()).getStockQuantity()).isEqualTo(100 - threadCount);
+		assertThat(memberService.findOne(member.getId()).getVersion()).isEqualTo(0L);
+	}
+
+	private void committed(Member member, Item item) {
+		committedMemberIds.add(member.getId());
+		committedItemIds.add(item.getId());
+	}
+
+	private void run(CountDownLatch start, CountDownLatch done, AtomicInteger failed, Runnable task) {
+		try {
+			start.await();
+			task.run();
+		} catch (Exception e) {
+			failed.incrementAndGet();
+		} finally {
+			done.countDown();
+		}
+	}
+
 	private Book createBook(String name, int price, int stock) {
 		Book book = new Book();
 		book.setName(name);
@@ -0,0 +1,121 @@
+package jpabook.jpashop.service;
+
+import static jpabook.jpashop.domain.order.OrderStatus.CANCEL;
+import static jpabook.jpashop.domain.order.OrderStatus.ORDER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Address;
+import jpabook.jpashop.domain.item.extend.Book;
+import jpabook.jpashop.domain.order.OrderStatus;
+import jpabook.jpashop.domain.order.OrderSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문/취소/회원 이름 변경 시 order_summary 갱신
+ */
+@SpringBootTest
+@Transactional
+class OrderSummaryUpdaterTest {
+
+	@Autowired
+	EntityManager em;
+	@Autowired
+	OrderService orderService;
+	@Autowired
+	MemberService memberService;
+
+	Member member;
+	Book book;
+
+	@BeforeEach
+	void setUp() {
+		member = new Member();
+		member.setName("요약회원");
+		member.setAddress(new Address("서울", "경기", "123-123"));
+		em.persist(member);
+
+		book = new Book();
+		book.setName("시골JPA");
+		book.setPrice(10000);
+		book.setStockQuantity(100);
+		em.persist(book);
+	}
+
+	@Test
+	void 주문하면_요약_추가() {
+		// when
+		Long orderId = orderService.order(member.getId(), book.getId(), 2);
+		em.flush();
+		em.clear();
+
+		// then
+		OrderSummary summary = em.find(OrderSummary.class, orderId);
+		assertThat(summary.getMemberId()).isEqualTo(member.getId());
+		assertThat(summary.getMemberName()).isEqualTo("요약회원");
+		assertThat(summary.getStatus()).isEqualTo(ORDER);
+		assertThat(summary.getAddress().getCity()).isEqualTo("서울");
+		assertThat(count(ORDER)).isEqualTo(1);
+	}
+
+	@Test
+	void 취소하면_주문_요약에서_빠짐() {
+		// given
+		Long orderId1 = orderService.order(member.getId(), book.getId(), 1);
+		Long orderId2 = orderService.order(member.getId(), book.getId(), 1);
+		assertThat(count(ORDER)).isEqualTo(2);
+
+		// when
+		orderService.cancelOrder(orderId1);
+		em.flush();
+		em.clear();
+
+		// then
+		assertThat(count(ORDER)).isEqualTo(1);
+		assertThat(count(CANCEL)).isEqualTo(1);
+		assertThat(em.find(OrderSummary.class, orderId1).getStatus()).isEqualTo(CANCEL);
+		assertThat(em.find(OrderSummary.class, orderId2).getStatus()).isEqualTo(ORDER);
+	}
+
+	@Test
+	void 일괄취소도_요약에_반영() {
+		// given
+		Long orderId1 = orderService.order(member.getId(), book.getId(), 1);
+		Long orderId2 = orderService.order(member.getId(), book.getId(), 1);
+
+		// when
+		orderService.cancelOrders(List.of(orderId1, orderId2));
+
+		// then
+		assertThat(count(ORDER)).isZero();
+		assertThat(count(CANCEL)).isEqualTo(2);
+	}
+
+	@Test
+	void 회원_이름_변경시_요약_갱신() {
+		// given
+		Long orderId = orderService.order(member.getId(), book.getId(), 1);
+
+		// when
+		memberService.update(member.getId(), "바뀐회원");
+		em.flush();
+		em.clear();
+
+		// then
+		assertThat(em.find(OrderSummary.class, orderId).getMemberName()).isEqualTo("바뀐회원");
+	}
+
+	private long count(OrderStatus status) {
+		return em.createQuery(
+				"select count(s) from OrderSummary s where s.memberId = :memberId and s.status = :status", Long.class)
+			.setParameter("memberId", member.getId())
+			.setParameter("status", status)
+			.getSingleResult();
+	}
+}
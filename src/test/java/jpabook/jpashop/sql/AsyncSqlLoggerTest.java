@@ -0,0 +1,88 @@
+package jpabook.jpashop.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.p6spy.engine.common.StatementInformation;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+@ExtendWith(OutputCaptureExtension.class)
+class AsyncSqlLoggerTest {
+
+	private final SqlLogProperties properties = new SqlLogProperties();
+	private final MockEnvironment environment = new MockEnvironment()
+		.withProperty(AsyncSqlLogger.P6SPY_LOGGING, "false");
+
+	@Test
+	void 버퍼가_가득차면_버리고_개수만_경고(CapturedOutput output) throws Exception {
+		//given: 쓰기 스레드 시작 전이라 버퍼에 쌓이기만 함
+		properties.setBufferSize(4);
+		AsyncSqlLogger logger = new AsyncSqlLogger(properties, environment);
+		for (int i = 0; i < 6; i++) {
+			logger.onAfterAnyExecute(statement("select item_" + i), 0, null);
+		}
+
+		//when
+		logger.start();
+		logger.stop();
+
+		//then: 앞의 4건만 기록
+		assertThat(output).contains("item_0", "item_3")
+			.doesNotContain("item_4", "item_5")
+			.contains("dropped 2 entries (capacity=4)");
+	}
+
+	@Test
+	void 느린_쿼리는_샘플링과_상관없이_기록(CapturedOutput output) throws Exception {
+		//given
+		properties.setSampleRate(0.0);
+		properties.setSlowQueryThresholdMs(100);
+		AsyncSqlLogger logger = new AsyncSqlLogger(properties, environment);
+		logger.start();
+
+		//when
+		logger.onAfterAnyExecute(statement("select fast_query"), TimeUnit.MILLISECONDS.toNanos(1), null);
+		logger.onAfterAnyExecute(statement("select slow_query"), TimeUnit.MILLISECONDS.toNanos(200), null);
+		logger.stop();
+
+		//then
+		assertThat(output).contains("[slow] | 200 ms").contains("slow_query").doesNotContain("fast_query");
+	}
+
+	@Test
+	void 파라미터_값을_같이_기록(CapturedOutput output) throws Exception {
+		//given
+		AsyncSqlLogger logger = new AsyncSqlLogger(properties, environment);
+		StatementInformation statement = mock(StatementInformation.class, RETURNS_DEEP_STUBS);
+		when(statement.getSql()).thenReturn("select m from member m where m.name = ?");
+		when(statement.getSqlWithValues()).thenReturn("select m from member m where m.name = 'param_kim'");
+
+		//when
+		logger.start();
+		logger.onAfterAnyExecute(statement, 0, null);
+		logger.stop();
+
+		//then
+		assertThat(output).contains("'param_kim'");
+	}
+
+	@Test
+	void P6Spy_로그가_켜져_있으면_생성_실패() {
+		assertThatThrownBy(() -> new AsyncSqlLogger(properties, new MockEnvironment()))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	private StatementInformation statement(String sql) {
+		StatementInformation statement = mock(StatementInformation.class, RETURNS_DEEP_STUBS);
+		when(statement.getSqlWithValues()).thenReturn(sql);
+		return statement;
+	}
+}
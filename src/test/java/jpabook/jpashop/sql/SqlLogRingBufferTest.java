@@ -0,0 +1,123 @@
+package jpabook.jpashop.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class SqlLogRingBufferTest {
+
+	@Test
+	void 크기는_2의_제곱수로_올림() {
+		assertThat(new SqlLogRingBuffer<>(5).capacity()).isEqualTo(8);
+		assertThat(new SqlLogRingBuffer<>(8).capacity()).isEqualTo(8);
+		assertThat(new SqlLogRingBuffer<>(8192).capacity()).isEqualTo(8192);
+	}
+
+	@Test
+	void 가득차면_버림() {
+		//given
+		SqlLogRingBuffer<Integer> buffer = new SqlLogRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(i)).isTrue();
+		}
+
+		//when, then
+		assertThat(buffer.offer(4)).isFalse();
+		assertThat(buffer.poll()).isEqualTo(0);
+		assertThat(buffer.offer(4)).isTrue();
+	}
+
+	@Test
+	void 여러_바퀴_돌아도_순서_유지() {
+		//given
+		SqlLogRingBuffer<Integer> buffer = new SqlLogRingBuffer<>(4);
+		int next = 0;
+
+		for (int round = 0; round < 10; round++) {
+			//when: 가득 채우고 모두 꺼냄
+			for (int i = 0; i < 4; i++) {
+				assertThat(buffer.offer(next + i)).isTrue();
+			}
+			assertThat(buffer.offer(-1)).isFalse();
+
+			//then
+			for (int i = 0; i < 4; i++) {
+				assertThat(buffer.poll()).isEqualTo(next + i);
+			}
+			assertThat(buffer.poll()).isNull();
+			next += 4;
+		}
+	}
+
+	@Test
+	void 넣고_꺼내기를_번갈아_하면_슬롯_경계를_넘어감() {
+		SqlLogRingBuffer<Integer> buffer = new SqlLogRingBuffer<>(4);
+		assertThat(buffer.offer(0)).isTrue();
+		for (int i = 1; i < 100; i++) {
+			assertThat(buffer.offer(i)).isTrue();
+			assertThat(buffer.poll()).isEqualTo(i - 1);
+		}
+		assertThat(buffer.poll()).isEqualTo(99);
+		assertThat(buffer.poll()).isNull();
+	}
+
+	@Test
+	@Timeout(30)
+	void 생산자_여럿_소비자_하나() throws Exception {
+		//given
+		int producers = 4;
+		int perProducer = 20_000;
+		SqlLogRingBuffer<long[]> buffer = new SqlLogRingBuffer<>(64);
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch start = new CountDownLatch(1);
+
+		//when: 가득 차면 다시 시도해서 하나도 버리지 않음
+		for (int p = 0; p < producers; p++) {
+			long producer = p;
+			executor.submit(() -> {
+				start.await();
+				for (long seq = 0; seq < perProducer; seq++) {
+					long[] element = {producer, seq};
+					while (!buffer.offer(element)) {
+						Thread.onSpinWait();
+					}
+				}
+				return null;
+			});
+		}
+		start.countDown();
+
+		List<List<Long>> received = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			received.add(new ArrayList<>());
+		}
+		int total = 0;
+		while (total < producers * perProducer) {
+			long[] element = buffer.poll();
+			if (element == null) {
+				Thread.onSpinWait();
+				continue;
+			}
+			received.get((int) element[0]).add(element[1]);
+			total++;
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+		//then: 생산자별로 빠짐, 중복 없이 넣은 순서대로
+		for (List<Long> sequences : received) {
+			assertThat(sequences).hasSize(perProducer);
+			for (int i = 0; i < perProducer; i++) {
+				assertThat(sequences.get(i)).isEqualTo(i);
+			}
+		}
+		assertThat(buffer.poll()).isNull();
+	}
+}
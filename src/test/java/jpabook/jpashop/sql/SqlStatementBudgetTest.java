@@ -0,0 +1,146 @@
+package jpabook.jpashop.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.p6spy.engine.common.StatementInformation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jpabook.jpashop.exception.SqlStatementBudgetExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청별 SQL 집계, 예산 초과 처리
+ */
+class SqlStatementBudgetTest {
+
+	private final SqlStatementBudgetProperties properties = new SqlStatementBudgetProperties();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void tearDown() {
+		SqlStatementContext.clear();
+	}
+
+	@Test
+	void 집계() {
+		//given
+		SqlStatementStats stats = new SqlStatementStats();
+
+		//when
+		stats.record("select m", 1_000_000);
+		stats.record("select o", 2_000_000);
+		stats.record("select o", 3_000_000);
+
+		//then
+		assertThat(stats.getStatementCount()).isEqualTo(3);
+		assertThat(stats.getTotalMillis()).isEqualTo(6);
+		assertThat(stats.getMaxRepeatCount()).isEqualTo(2);
+		assertThat(stats.getMostRepeatedSql()).isEqualTo("select o");
+		assertThat(stats.repeatCount("select m")).isEqualTo(1);
+		assertThat(stats.repeatCount("select i")).isZero();
+	}
+
+	@Test
+	void 요청_끝나면_지표_기록() throws Exception {
+		//given
+		properties.setMaxRepeatedStatements(2);
+		SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(properties, meterRegistry);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/orders");
+
+		//when: 같은 SQL 3번 (N + 1 의심)
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) {
+				SqlStatementStats stats = SqlStatementContext.current();
+				stats.record("select o", 1_000_000);
+				stats.record("select o", 1_000_000);
+				stats.record("select o", 1_000_000);
+			}
+		});
+
+		//then
+		assertThat(meterRegistry.get("jpashop.sql.statements").tag("uri", "/api/v1/orders").summary().totalAmount())
+			.isEqualTo(3);
+		assertThat(meterRegistry.get("jpashop.sql.max.repeat").summary().max()).isEqualTo(3);
+		assertThat(meterRegistry.get("jpashop.sql.budget.exceeded").counter().count()).isEqualTo(1);
+		assertThat(SqlStatementContext.current()).isNull();
+	}
+
+	@Test
+	void 예산_이내면_초과_카운터_없음() throws Exception {
+		//given
+		SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(properties, meterRegistry);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+
+		//when
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		//then
+		assertThat(meterRegistry.get("jpashop.sql.statements").tag("uri", "UNKNOWN").summary().count()).isEqualTo(1);
+		assertThat(meterRegistry.find("jpashop.sql.budget.exceeded").counter()).isNull();
+	}
+
+	@Test
+	void failFast면_예산_초과_SQL_실행_전_예외() {
+		//given
+		properties.setFailFast(true);
+		properties.setMaxStatements(2);
+		SqlStatementBudgetListener listener = new SqlStatementBudgetListener(properties);
+		SqlStatementContext.start();
+
+		//when
+		listener.onAfterAnyExecute(statement("select m"), 1, null);
+		listener.onAfterAnyExecute(statement("select o"), 1, null);
+
+		//then
+		assertThatThrownBy(() -> listener.onBeforeAnyExecute(statement("select i")))
+			.isInstanceOf(SqlStatementBudgetExceededException.class);
+	}
+
+	@Test
+	void failFast면_같은_SQL_반복_초과시_예외() {
+		//given
+		properties.setFailFast(true);
+		properties.setMaxRepeatedStatements(2);
+		SqlStatementBudgetListener listener = new SqlStatementBudgetListener(properties);
+		SqlStatementContext.start();
+
+		//when
+		listener.onAfterAnyExecute(statement("select o"), 1, null);
+		listener.onAfterAnyExecute(statement("select o"), 1, null);
+		listener.onBeforeAnyExecute(statement("select m"));
+
+		//then
+		assertThatThrownBy(() -> listener.onBeforeAnyExecute(statement("select o")))
+			.isInstanceOf(SqlStatementBudgetExceededException.class);
+	}
+
+	@Test
+	void 요청_밖_SQL은_집계하지_않음() {
+		//given
+		properties.setFailFast(true);
+		properties.setMaxStatements(0);
+		SqlStatementBudgetListener listener = new SqlStatementBudgetListener(properties);
+
+		//when, then: 예외 없음
+		listener.onBeforeAnyExecute(statement("select m"));
+		listener.onAfterAnyExecute(statement("select m"), 1, null);
+		assertThat(SqlStatementContext.current()).isNull();
+	}
+
+	private StatementInformation statement(String sql) {
+		StatementInformation statement = mock(StatementInformation.class);
+		when(statement.getSql()).thenReturn(sql);
+		return statement;
+	}
+}